@@ -6,6 +6,8 @@ CREATE TABLE `storage_tbl`
     `id`             int(11) NOT NULL AUTO_INCREMENT,
     `commodity_code` varchar(255) DEFAULT NULL,
     `count`          int(11)      DEFAULT 0,
+    `prededuct_seq`  bigint(20)   NOT NULL DEFAULT 0 COMMENT 'Redis 预扣已落库的最大序号',
+    `shards`         int(11)      NOT NULL DEFAULT 0 COMMENT '库存分片数，0 表示未分片',
     PRIMARY KEY (`id`),
     UNIQUE KEY (`commodity_code`)
 ) ENGINE = InnoDB
@@ -15,6 +17,19 @@ VALUES ('P0001', 100);
 INSERT INTO storage_tbl (commodity_code, count)
 VALUES ('B1234', 10);
 
+-- 分片库存：热点商品调用 POST /stock/shard 后，库存从 storage_tbl 转移到这里
+DROP TABLE IF EXISTS `storage_bucket_tbl`;
+CREATE TABLE `storage_bucket_tbl`
+(
+    `id`             int(11)      NOT NULL AUTO_INCREMENT,
+    `commodity_code` varchar(255) NOT NULL,
+    `bucket_no`      int(11)      NOT NULL,
+    `count`          int(11)      DEFAULT 0,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_commodity_bucket` (`commodity_code`, `bucket_no`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
+
 -- 注意此处0.3.0+ 增加唯一索引 ux_undo_log
 DROP TABLE IF EXISTS `undo_log`;
 CREATE TABLE `undo_log`
@@ -66,6 +81,19 @@ CREATE TABLE `undo_log`
   AUTO_INCREMENT = 1
   DEFAULT CHARSET = utf8;
 
+-- xxl-job 执行器的分片检查点：已经连续处理完的 id 上界
+DROP TABLE IF EXISTS `job_checkpoint_tbl`;
+CREATE TABLE `job_checkpoint_tbl`
+(
+    `job_name`    varchar(128) NOT NULL,
+    `shard_index` int(11)      NOT NULL,
+    `shard_total` int(11)      NOT NULL,
+    `position`    bigint(20)   NOT NULL,
+    `update_time` datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (`job_name`, `shard_index`, `shard_total`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
+
 CREATE DATABASE IF NOT EXISTS `account_db`;
 USE `account_db`;
 DROP TABLE IF EXISTS `account_tbl`;
@@ -79,6 +107,21 @@ CREATE TABLE `account_tbl`
   DEFAULT CHARSET = utf8;
 INSERT INTO account_tbl (user_id, money)
 VALUES ('1', 10000);
+
+-- 热点账户扣款流水：扣款只插入流水，定时汇总到 account_tbl
+DROP TABLE IF EXISTS `account_journal_tbl`;
+CREATE TABLE `account_journal_tbl`
+(
+    `id`          bigint(20)   NOT NULL AUTO_INCREMENT,
+    `user_id`     varchar(255) NOT NULL,
+    `money`       int(11)      NOT NULL,
+    `xid`         varchar(128) DEFAULT NULL COMMENT '所属全局事务，为空表示不在全局事务中',
+    `folded`      tinyint(1)   NOT NULL DEFAULT 0 COMMENT '是否已汇总到余额',
+    `create_time` datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`),
+    KEY `idx_user_folded` (`user_id`, `folded`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
 -- 注意此处0.3.0+ 增加唯一索引 ux_undo_log
 DROP TABLE IF EXISTS `undo_log`;
 CREATE TABLE `undo_log`
@@ -0,0 +1,21 @@
+package com.demo.gateway.config;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@Configuration
+public class RateLimitConfig {
+
+  // 默认按客户端 IP 限流；声明后网关不再创建默认的 principalNameKeyResolver
+  @Bean
+  KeyResolver ipKeyResolver() {
+    return exchange -> {
+      InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+      return address == null ? Mono.empty() : Mono.just(address.getAddress().getHostAddress());
+    };
+  }
+}
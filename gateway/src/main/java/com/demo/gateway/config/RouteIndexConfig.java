@@ -0,0 +1,25 @@
+package com.demo.gateway.config;
+
+import com.demo.gateway.route.IndexedRoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class RouteIndexConfig {
+
+  // 替换网关默认的 RoutePredicateHandlerMapping（默认 bean 带 @ConditionalOnMissingBean）
+  @Bean
+  RoutePredicateHandlerMapping routePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                                            RouteDefinitionLocator routeDefinitionLocator,
+                                                            GlobalCorsProperties globalCorsProperties,
+                                                            Environment environment) {
+    return new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, routeDefinitionLocator,
+        globalCorsProperties, environment);
+  }
+}
@@ -1,33 +1,86 @@
 package com.demo.gateway.filter;
 
+import com.demo.gateway.properties.RtProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-@Component
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按路由统计请求耗时
+ * <p>
+ * 耗时记录到 gateway.route.latency{routeId=...}，通过 /actuator/metrics/gateway.route.latency.percentile
+ * 查看 p50/p99/p999；只有慢请求才打印日志，并且按 slow-log-interval 限频。
+ */
 @Slf4j
+@Component
 public class RtGlobalFilter implements GlobalFilter, Ordered {
 
+  private static final String UNKNOWN_ROUTE = "unknown";
+
+  private final MeterRegistry meterRegistry;
+  private final long slowThresholdNanos;
+  private final long slowLogIntervalNanos;
+  private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+  private final AtomicLong lastSlowLogNanos = new AtomicLong();
+
+  public RtGlobalFilter(MeterRegistry meterRegistry, RtProperties properties) {
+    this.meterRegistry = meterRegistry;
+    this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    this.slowLogIntervalNanos = properties.getSlowLogInterval().toNanos();
+    this.lastSlowLogNanos.set(System.nanoTime() - slowLogIntervalNanos);
+  }
+
   @Override
   public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-    ServerHttpRequest request = exchange.getRequest();
-    String uri = request.getURI().toString();
-    long start = System.currentTimeMillis();
-    log.info("请求【{}】开始：时间：{}", uri, start);
+    long start = System.nanoTime();
     //========================以上是前置逻辑=========================
     return chain.filter(exchange)
         .doFinally((result) -> {
           //=======================以下是后置逻辑=========================
-          long end = System.currentTimeMillis();
-          log.info("请求【{}】结束：时间：{}，耗时：{}ms", uri, end, end - start);
+          long end = System.nanoTime();
+          long elapsed = end - start;
+          Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+          String routeId = route == null ? UNKNOWN_ROUTE : route.getId();
+          timer(routeId).record(elapsed, TimeUnit.NANOSECONDS);
+          if (elapsed >= slowThresholdNanos && acquireSlowLog(end)) {
+            log.warn("慢请求【{}】路由：{}，耗时：{}ms", exchange.getRequest().getPath().value(), routeId,
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+          }
         });
   }
 
+  private Timer timer(String routeId) {
+    Timer timer = timers.get(routeId);
+    if (timer != null) {
+      return timer;
+    }
+    return timers.computeIfAbsent(routeId, id -> Timer.builder("gateway.route.latency")
+        .description("网关按路由统计的请求耗时")
+        .tag("routeId", id)
+        .publishPercentiles(0.5, 0.99, 0.999)
+        .distributionStatisticExpiry(Duration.ofMinutes(1))
+        .register(meterRegistry));
+  }
+
+  private boolean acquireSlowLog(long now) {
+    long last = lastSlowLogNanos.get();
+    return now - last >= slowLogIntervalNanos && lastSlowLogNanos.compareAndSet(last, now);
+  }
+
   @Override
   public int getOrder() {
     return 0;
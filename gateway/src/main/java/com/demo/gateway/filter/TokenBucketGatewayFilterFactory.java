@@ -0,0 +1,80 @@
+package com.demo.gateway.filter;
+
+import com.demo.gateway.ratelimit.BucketSpec;
+import com.demo.gateway.ratelimit.TokenBucketLimiter;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 令牌桶限流，按 mode 使用单机或集群限流器
+ * <pre>
+ * - name: TokenBucket
+ *   args:
+ *     replenish-rate: 500
+ *     burst-capacity: 1000
+ *     key-resolver: "#{@ipKeyResolver}"
+ * </pre>
+ */
+@Component
+public class TokenBucketGatewayFilterFactory extends AbstractGatewayFilterFactory<TokenBucketGatewayFilterFactory.Config> {
+
+  private static final String EMPTY_KEY = "anonymous";
+
+  private final TokenBucketLimiter limiter;
+  private final KeyResolver defaultKeyResolver;
+
+  public TokenBucketGatewayFilterFactory(TokenBucketLimiter limiter, KeyResolver defaultKeyResolver) {
+    super(Config.class);
+    this.limiter = limiter;
+    this.defaultKeyResolver = defaultKeyResolver;
+  }
+
+  @Override
+  public List<String> shortcutFieldOrder() {
+    return List.of("replenishRate", "burstCapacity");
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    // 参数在路由刷新时校验一次，请求路径上不再创建对象
+    BucketSpec spec = new BucketSpec(config.getReplenishRate(), config.getBurstCapacity());
+    KeyResolver resolver = config.getKeyResolver() == null ? defaultKeyResolver : config.getKeyResolver();
+    return (exchange, chain) -> {
+      Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+      return resolver.resolve(exchange)
+          .defaultIfEmpty(EMPTY_KEY)
+          .flatMap(key -> limiter.tryAcquire(route.getId() + ":" + key, spec))
+          .flatMap(allowed -> {
+            if (allowed) {
+              return chain.filter(exchange);
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            return exchange.getResponse().setComplete();
+          });
+    };
+  }
+
+  @Data
+  public static class Config {
+
+    /**
+     * 每秒补充的令牌数
+     */
+    int replenishRate;
+
+    /**
+     * 桶容量
+     */
+    int burstCapacity;
+
+    KeyResolver keyResolver;
+  }
+}
@@ -0,0 +1,21 @@
+package com.demo.gateway.predicate;
+
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * 每个请求只解析一次查询参数，结果挂在 exchange 属性上供所有自定义断言共用
+ */
+public final class ExchangeQueryParams {
+
+  private static final String ATTR = ExchangeQueryParams.class.getName();
+
+  private ExchangeQueryParams() {
+  }
+
+  @SuppressWarnings("unchecked")
+  public static MultiValueMap<String, String> get(ServerWebExchange exchange) {
+    return (MultiValueMap<String, String>) exchange.getAttributes()
+        .computeIfAbsent(ATTR, key -> exchange.getRequest().getQueryParams());
+  }
+}
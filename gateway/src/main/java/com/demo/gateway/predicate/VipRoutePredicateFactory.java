@@ -3,7 +3,6 @@ package com.demo.gateway.predicate;
 import jakarta.validation.constraints.NotEmpty;
 import org.springframework.cloud.gateway.handler.predicate.AbstractRoutePredicateFactory;
 import org.springframework.cloud.gateway.handler.predicate.GatewayPredicate;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
@@ -23,10 +22,11 @@ public class VipRoutePredicateFactory extends AbstractRoutePredicateFactory<VipR
 
   @Override
   public Predicate<ServerWebExchange> apply(Config config) {
+    String param = config.param;
+    String value = config.value;
     return (GatewayPredicate) serverWebExchange -> {
-      ServerHttpRequest request = serverWebExchange.getRequest();
-      String first = request.getQueryParams().getFirst(config.param);
-      return StringUtils.hasText(first) && Objects.equals(first, config.value);
+      String first = ExchangeQueryParams.get(serverWebExchange).getFirst(param);
+      return StringUtils.hasText(first) && Objects.equals(first, value);
     };
   }
 
@@ -0,0 +1,28 @@
+package com.demo.gateway.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.once-token")
+@Data
+public class OnceTokenProperties {
+
+  /**
+   * jwt 模式的 HMAC-SHA256 签名密钥，至少 32 字节
+   */
+  String jwtSecret;
+
+  /**
+   * jwt 签发方
+   */
+  String jwtIssuer = "gateway";
+
+  /**
+   * jwt 有效期
+   */
+  Duration jwtTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,46 @@
+package com.demo.gateway.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+@Data
+public class RateLimitProperties {
+
+  /**
+   * local：每个网关实例独立限流；cluster：通过 Redis 共享配额
+   */
+  String mode = "local";
+
+  /**
+   * 限流桶闲置多久后回收，闲置期间令牌已经补满，回收不影响限流结果
+   */
+  Duration idleTimeout = Duration.ofMinutes(10);
+
+  /**
+   * 本地最多保留的限流桶数量
+   */
+  long maximumBuckets = 100_000;
+
+  Cluster cluster = new Cluster();
+
+  @Data
+  public static class Cluster {
+
+    /**
+     * 批量向 Redis 续租配额的间隔
+     */
+    Duration syncInterval = Duration.ofMillis(50);
+
+    /**
+     * 每次 Lua 调用最多携带的 key 数量
+     */
+    int batchSize = 200;
+
+    String keyPrefix = "gateway:rate-limit:";
+  }
+}
@@ -0,0 +1,23 @@
+package com.demo.gateway.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.rt")
+@Data
+public class RtProperties {
+
+  /**
+   * 超过该耗时的请求记为慢请求
+   */
+  Duration slowThreshold = Duration.ofMillis(500);
+
+  /**
+   * 慢请求日志的最小间隔，间隔内的其余慢请求只计入指标不打印
+   */
+  Duration slowLogInterval = Duration.ofSeconds(1);
+}
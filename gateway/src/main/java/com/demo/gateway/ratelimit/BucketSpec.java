@@ -0,0 +1,23 @@
+package com.demo.gateway.ratelimit;
+
+/**
+ * 令牌桶参数
+ *
+ * @param replenishRate 每秒补充的令牌数
+ * @param burstCapacity 桶容量，即允许的突发请求数
+ */
+public record BucketSpec(int replenishRate, int burstCapacity) {
+
+  public BucketSpec {
+    if (replenishRate <= 0 || burstCapacity < 1) {
+      throw new IllegalArgumentException("replenishRate 必须大于 0，burstCapacity 至少为 1");
+    }
+  }
+
+  /**
+   * 每个令牌的补充间隔
+   */
+  long intervalNanos() {
+    return 1_000_000_000L / replenishRate;
+  }
+}
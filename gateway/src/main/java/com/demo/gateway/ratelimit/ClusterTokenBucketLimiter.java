@@ -0,0 +1,181 @@
+package com.demo.gateway.ratelimit;
+
+import com.demo.gateway.properties.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 集群限流：全局令牌桶放在 Redis，各网关实例按批租借令牌到本地消费
+ * <p>
+ * 热点 key 的本地余量低于半个批次时打上续租标记，由后台任务每隔 sync-interval
+ * 把所有待续租的 key 合并成一次 Lua 调用；只有本地余量耗尽（冷 key 或已超限）时才单独访问 Redis。
+ * 已租到本地但没用完的令牌在桶回收后作废，因此集群整体放行量最多比配置少 实例数 × 批次大小。
+ * Lua 脚本一次操作多个 key，只适用于单机 / 哨兵模式的 Redis。Redis 不可用时放行请求。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "mode", havingValue = "cluster")
+public class ClusterTokenBucketLimiter implements TokenBucketLimiter {
+
+  private static final RedisScript<List<Long>> LEASE_SCRIPT = leaseScript();
+
+  private final ReactiveStringRedisTemplate redisTemplate;
+  private final RateLimitProperties.Cluster properties;
+  private final long syncIntervalNanos;
+  private final Cache<String, Lease> leases;
+  private Disposable syncTask;
+
+  public ClusterTokenBucketLimiter(ReactiveStringRedisTemplate redisTemplate, RateLimitProperties properties) {
+    this.redisTemplate = redisTemplate;
+    this.properties = properties.getCluster();
+    this.syncIntervalNanos = this.properties.getSyncInterval().toNanos();
+    this.leases = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumBuckets())
+        .expireAfterAccess(properties.getIdleTimeout())
+        .build();
+  }
+
+  @PostConstruct
+  public void startSync() {
+    syncTask = Flux.interval(properties.getSyncInterval())
+        .onBackpressureDrop()
+        .concatMap(tick -> refillPending(), 1)
+        .subscribe();
+  }
+
+  @PreDestroy
+  public void stopSync() {
+    syncTask.dispose();
+  }
+
+  @Override
+  public Mono<Boolean> tryAcquire(String key, BucketSpec spec) {
+    Lease lease = leases.get(key, k -> new Lease(properties.getKeyPrefix() + k, spec, leaseSize(spec)));
+    long remaining = lease.take();
+    if (remaining >= 0) {
+      if (remaining <= lease.batch / 2) {
+        lease.refillRequested.set(true);
+      }
+      return ALLOWED;
+    }
+    long now = System.nanoTime();
+    if (now - lease.deniedUntil < 0) {
+      return DENIED;
+    }
+    // 本地余量耗尽，单独租借一次
+    return lease(List.of(lease))
+        .map(granted -> {
+          if (granted.get(0) > 0) {
+            lease.tokens.addAndGet(granted.get(0) - 1);
+            return Boolean.TRUE;
+          }
+          lease.deniedUntil = now + syncIntervalNanos;
+          return Boolean.FALSE;
+        })
+        .onErrorResume(e -> {
+          log.warn("Redis 限流不可用，放行请求：{}", e.getMessage());
+          return ALLOWED;
+        });
+  }
+
+  private Mono<Void> refillPending() {
+    List<Lease> pending = new ArrayList<>();
+    for (Lease lease : leases.asMap().values()) {
+      if (lease.refillRequested.compareAndSet(true, false)) {
+        pending.add(lease);
+      }
+    }
+    if (pending.isEmpty()) {
+      return Mono.empty();
+    }
+    return Flux.fromIterable(pending)
+        .buffer(properties.getBatchSize())
+        .concatMap(batch -> lease(batch)
+            .doOnNext(granted -> {
+              for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).tokens.addAndGet(granted.get(i));
+              }
+            })
+            .onErrorResume(e -> {
+              log.warn("批量续租限流配额失败：{}", e.getMessage());
+              return Mono.empty();
+            }))
+        .then();
+  }
+
+  private Mono<List<Long>> lease(List<Lease> batch) {
+    List<String> keys = new ArrayList<>(batch.size());
+    List<String> args = new ArrayList<>(batch.size() * 3);
+    for (Lease lease : batch) {
+      keys.add(lease.redisKey);
+      args.add(Long.toString(lease.batch));
+      args.add(Integer.toString(lease.spec.replenishRate()));
+      args.add(Integer.toString(lease.spec.burstCapacity()));
+    }
+    return redisTemplate.execute(LEASE_SCRIPT, keys, args).next();
+  }
+
+  /**
+   * 脚本返回整数数组，Redis 整数回复反序列化为 Long
+   */
+  @SuppressWarnings("unchecked")
+  private static RedisScript<List<Long>> leaseScript() {
+    return (RedisScript<List<Long>>) (RedisScript<?>) RedisScript.of(
+        new ClassPathResource("scripts/token-bucket-lease.lua"), List.class);
+  }
+
+  /**
+   * 每批租借约两个同步间隔内的配额，且不超过桶容量
+   */
+  private long leaseSize(BucketSpec spec) {
+    double perSync = spec.replenishRate() * properties.getSyncInterval().toNanos() / 1_000_000_000.0;
+    return Math.max(1, Math.min(spec.burstCapacity(), (long) Math.ceil(perSync * 2)));
+  }
+
+  private static final class Lease {
+
+    private final String redisKey;
+    private final BucketSpec spec;
+    private final long batch;
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicBoolean refillRequested = new AtomicBoolean();
+    private volatile long deniedUntil = System.nanoTime();
+
+    private Lease(String redisKey, BucketSpec spec, long batch) {
+      this.redisKey = redisKey;
+      this.spec = spec;
+      this.batch = batch;
+    }
+
+    /**
+     * 取一个本地令牌，返回剩余数量；没有令牌时返回 -1
+     */
+    private long take() {
+      for (; ; ) {
+        long current = tokens.get();
+        if (current <= 0) {
+          return -1;
+        }
+        if (tokens.compareAndSet(current, current - 1)) {
+          return current - 1;
+        }
+      }
+    }
+  }
+}
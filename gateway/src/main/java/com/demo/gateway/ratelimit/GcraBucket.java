@@ -0,0 +1,36 @@
+package com.demo.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶，使用 GCRA（Generic Cell Rate Algorithm）实现
+ * <p>
+ * 只维护一个"理论到达时间" tat：每放行一个请求 tat 向后推一个补充间隔，
+ * tat 超前当前时间超过 (容量 - 1) 个间隔时说明桶已空。效果与令牌桶完全一致，
+ * 但状态只有一个 long，一次 CAS 即可完成，不需要加锁也不分配对象。
+ */
+final class GcraBucket {
+
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final AtomicLong tat;
+
+  GcraBucket(BucketSpec spec, long nowNanos) {
+    this.intervalNanos = spec.intervalNanos();
+    this.toleranceNanos = (spec.burstCapacity() - 1) * intervalNanos;
+    this.tat = new AtomicLong(nowNanos);
+  }
+
+  boolean tryAcquire(long nowNanos) {
+    for (; ; ) {
+      long current = tat.get();
+      long next = Math.max(current, nowNanos);
+      if (next - nowNanos > toleranceNanos) {
+        return false;
+      }
+      if (tat.compareAndSet(current, next + intervalNanos)) {
+        return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.demo.gateway.ratelimit;
+
+import com.demo.gateway.properties.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 单机限流：每个网关实例各自计数，不依赖任何外部存储
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "mode", havingValue = "local", matchIfMissing = true)
+public class LocalTokenBucketLimiter implements TokenBucketLimiter {
+
+  private final Cache<String, GcraBucket> buckets;
+
+  public LocalTokenBucketLimiter(RateLimitProperties properties) {
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumBuckets())
+        .expireAfterAccess(properties.getIdleTimeout())
+        .build();
+  }
+
+  @Override
+  public Mono<Boolean> tryAcquire(String key, BucketSpec spec) {
+    long now = System.nanoTime();
+    GcraBucket bucket = buckets.get(key, k -> new GcraBucket(spec, now));
+    return bucket.tryAcquire(now) ? ALLOWED : DENIED;
+  }
+}
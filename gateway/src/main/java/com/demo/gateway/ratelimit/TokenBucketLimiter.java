@@ -0,0 +1,17 @@
+package com.demo.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+public interface TokenBucketLimiter {
+
+  Mono<Boolean> ALLOWED = Mono.just(Boolean.TRUE);
+  Mono<Boolean> DENIED = Mono.just(Boolean.FALSE);
+
+  /**
+   * 尝试从 key 对应的令牌桶中取一个令牌
+   *
+   * @param key  限流维度，已包含路由 id
+   * @param spec 该路由的令牌桶参数
+   */
+  Mono<Boolean> tryAcquire(String key, BucketSpec spec);
+}
@@ -0,0 +1,71 @@
+package com.demo.gateway.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * 先用 {@link RouteIndex} 按路径前缀筛出候选路由，再按原顺序执行断言
+ * <p>
+ * 路由每次刷新完成后重建索引；索引建好之前退回默认的全量线性匹配。
+ */
+@Slf4j
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+    implements ApplicationListener<RefreshRoutesResultEvent> {
+
+  private final RouteLocator routeLocator;
+  private final RouteDefinitionLocator routeDefinitionLocator;
+  private volatile RouteIndex routeIndex;
+
+  public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                             RouteDefinitionLocator routeDefinitionLocator,
+                                             GlobalCorsProperties globalCorsProperties, Environment environment) {
+    super(webHandler, routeLocator, globalCorsProperties, environment);
+    this.routeLocator = routeLocator;
+    this.routeDefinitionLocator = routeDefinitionLocator;
+  }
+
+  @Override
+  public void onApplicationEvent(RefreshRoutesResultEvent event) {
+    if (!event.isSuccess()) {
+      return;
+    }
+    Mono.zip(routeLocator.getRoutes().collectList(), routeDefinitionLocator.getRouteDefinitions().collectList())
+        .subscribe(routes -> {
+          routeIndex = RouteIndex.build(routes.getT1(), routes.getT2());
+          log.info("路由索引已重建，路由数量：{}", routes.getT1().size());
+        }, e -> log.error("路由索引重建失败，继续使用旧索引", e));
+  }
+
+  @Override
+  protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+    RouteIndex index = this.routeIndex;
+    if (index == null) {
+      return super.lookupRoute(exchange);
+    }
+    return Flux.fromIterable(index.candidates(exchange.getRequest().getURI().getRawPath()))
+        .concatMap(route -> Mono.just(route).filterWhen(r -> {
+              exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+              return r.getPredicate().apply(exchange);
+            })
+            .doOnError(e -> log.error("Error applying predicate for route: {}", route.getId(), e))
+            .onErrorResume(e -> Mono.empty()))
+        .next()
+        .map(route -> {
+          validateRoute(route, exchange);
+          return route;
+        });
+  }
+}
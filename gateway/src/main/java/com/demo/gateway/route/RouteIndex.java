@@ -0,0 +1,162 @@
+package com.demo.gateway.route;
+
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路由索引：按 Path 断言的字面量前缀建立的前缀树（按路径段划分）
+ * <p>
+ * 每个节点预先算好候选路由列表 = 没有 Path 断言的路由 + 前缀是该节点或其祖先的路由，保持原有路由顺序。
+ * 查找时沿请求路径走到最深的节点，只需要对候选路由依次执行断言，结果与全量线性匹配一致。
+ * 索引是不可变的，路由刷新后整体重建替换。
+ */
+public final class RouteIndex {
+
+  private static final String PATH_PREDICATE = "Path";
+
+  private final List<Route> routes;
+  private final Node root;
+
+  private RouteIndex(List<Route> routes, Node root) {
+    this.routes = routes;
+    this.root = root;
+  }
+
+  /**
+   * @param routes      已按 order 排好序的路由，即 RouteLocator 返回的顺序
+   * @param definitions 路由定义，用于读取 Path 断言的配置；找不到定义的路由（如 Java DSL 路由）不进索引
+   */
+  public static RouteIndex build(List<Route> routes, List<RouteDefinition> definitions) {
+    Map<String, List<String>> prefixesByRouteId = new HashMap<>();
+    for (RouteDefinition definition : definitions) {
+      List<String> prefixes = literalPrefixes(definition);
+      if (prefixes != null) {
+        prefixesByRouteId.put(definition.getId(), prefixes);
+      }
+    }
+
+    Node root = new Node();
+    BitSet unindexed = new BitSet(routes.size());
+    for (int i = 0; i < routes.size(); i++) {
+      List<String> prefixes = prefixesByRouteId.get(routes.get(i).getId());
+      if (prefixes == null) {
+        unindexed.set(i);
+        continue;
+      }
+      for (String prefix : prefixes) {
+        Node node = root;
+        for (String segment : segments(prefix)) {
+          node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        node.routes.set(i);
+      }
+    }
+    root.freeze(routes, unindexed);
+    return new RouteIndex(List.copyOf(routes), root);
+  }
+
+  /**
+   * 返回可能匹配该路径的路由，顺序与原路由顺序一致
+   *
+   * @param rawPath 未解码的请求路径
+   */
+  public List<Route> candidates(String rawPath) {
+    // 编码字符和矩阵参数会被 PathPattern 解码/忽略后再匹配，前缀树无法判断，回退到全量
+    if (rawPath.indexOf('%') >= 0 || rawPath.indexOf(';') >= 0) {
+      return routes;
+    }
+    Node node = root;
+    int length = rawPath.length();
+    int start = 0;
+    while (start < length) {
+      if (rawPath.charAt(start) == '/') {
+        start++;
+        continue;
+      }
+      int end = rawPath.indexOf('/', start);
+      if (end < 0) {
+        end = length;
+      }
+      Node child = node.children.get(rawPath.substring(start, end));
+      if (child == null) {
+        break;
+      }
+      node = child;
+      start = end;
+    }
+    return node.candidates;
+  }
+
+  public List<Route> routes() {
+    return routes;
+  }
+
+  /**
+   * 取出路由的 Path 断言里每个 pattern 的字面量前缀；没有 Path 断言时返回 null
+   */
+  private static List<String> literalPrefixes(RouteDefinition definition) {
+    for (PredicateDefinition predicate : definition.getPredicates()) {
+      if (!PATH_PREDICATE.equals(predicate.getName())) {
+        continue;
+      }
+      List<String> prefixes = new ArrayList<>();
+      predicate.getArgs().forEach((key, value) -> {
+        if (key.startsWith("match") || value == null) {
+          return; // matchTrailingSlash 等开关参数
+        }
+        for (String pattern : value.split(",")) {
+          prefixes.add(literalPrefix(pattern.trim()));
+        }
+      });
+      return prefixes.isEmpty() ? null : prefixes;
+    }
+    return null;
+  }
+
+  private static String literalPrefix(String pattern) {
+    StringBuilder prefix = new StringBuilder();
+    for (String segment : segments(pattern)) {
+      if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0
+          || segment.indexOf('{') >= 0 || segment.indexOf('%') >= 0) {
+        break;
+      }
+      prefix.append('/').append(segment);
+    }
+    return prefix.toString();
+  }
+
+  private static List<String> segments(String path) {
+    List<String> segments = new ArrayList<>();
+    for (String segment : path.split("/")) {
+      if (!segment.isEmpty()) {
+        segments.add(segment);
+      }
+    }
+    return segments;
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+    private final BitSet routes = new BitSet();
+    private List<Route> candidates;
+
+    private void freeze(List<Route> allRoutes, BitSet inherited) {
+      BitSet own = (BitSet) inherited.clone();
+      own.or(routes);
+      List<Route> list = new ArrayList<>(own.cardinality());
+      own.stream().forEach(i -> list.add(allRoutes.get(i)));
+      candidates = List.copyOf(list);
+      for (Node child : children.values()) {
+        child.freeze(allRoutes, own);
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package com.demo.gateway.token;
+
+import com.demo.gateway.properties.OnceTokenProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * 一次性令牌生成器
+ * <p>
+ * UUID.randomUUID() 共用一个 SecureRandom，高并发下会争抢同一把锁；
+ * 这里每个线程持有自己的 DRBG 实例、预生成的随机字节池和 Mac 实例，生成令牌时没有跨线程竞争，
+ * 一次 nextBytes 填满整个池子，摊薄 DRBG 每次调用的固定开销。
+ * 网关运行在固定数量的 event-loop 线程上，ThreadLocal 的数量是有限的。
+ */
+@Component
+public class OnceTokenGenerator {
+
+  private static final String HMAC_SHA256 = "HmacSHA256";
+  private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+  private static final String JWT_HEADER = BASE64_URL.encodeToString(
+      "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+  private static final ThreadLocal<RandomPool> RANDOM = ThreadLocal.withInitial(RandomPool::new);
+
+  private final ThreadLocal<Mac> mac;
+  private final String issuer;
+  private final long ttlSeconds;
+
+  public OnceTokenGenerator(OnceTokenProperties properties) {
+    String secret = properties.getJwtSecret();
+    if (secret == null) {
+      // 未配置密钥时每次启动随机生成，重启后旧令牌全部失效
+      byte[] bytes = new byte[32];
+      newRandom().nextBytes(bytes);
+      secret = HexFormat.of().formatHex(bytes);
+    }
+    byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+    Assert.isTrue(key.length >= 32, "gateway.once-token.jwt-secret 至少需要 32 字节");
+    SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_SHA256);
+    this.mac = ThreadLocal.withInitial(() -> newMac(keySpec));
+    this.issuer = properties.getJwtIssuer();
+    this.ttlSeconds = properties.getJwtTtl().toSeconds();
+  }
+
+  /**
+   * 随机令牌，格式与 UUID.randomUUID() 相同（version 4）
+   */
+  public String uuid() {
+    RandomPool random = RANDOM.get();
+    long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+    long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(msb, lsb).toString();
+  }
+
+  /**
+   * HS256 签名的 jwt，jti 为随机令牌，exp = iat + ttl
+   */
+  public String jwt() {
+    long now = System.currentTimeMillis() / 1000;
+    String payload = "{\"iss\":\"" + issuer + "\",\"jti\":\"" + uuid()
+        + "\",\"iat\":" + now + ",\"exp\":" + (now + ttlSeconds) + "}";
+    String signingInput = JWT_HEADER + "." + BASE64_URL.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    Mac hmac = mac.get();
+    byte[] signature = hmac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    return signingInput + "." + BASE64_URL.encodeToString(signature);
+  }
+
+  /**
+   * 单线程使用的随机字节池，用完后整体重新填充
+   */
+  private static final class RandomPool {
+
+    private static final int SIZE = 4096;
+
+    private final SecureRandom random = newRandom();
+    private final ByteBuffer buffer = ByteBuffer.allocate(SIZE).position(SIZE);
+
+    long nextLong() {
+      if (!buffer.hasRemaining()) {
+        random.nextBytes(buffer.array());
+        buffer.clear();
+      }
+      return buffer.getLong();
+    }
+  }
+
+  private static SecureRandom newRandom() {
+    try {
+      return SecureRandom.getInstance("DRBG");
+    } catch (NoSuchAlgorithmException e) {
+      return new SecureRandom();
+    }
+  }
+
+  private static Mac newMac(SecretKeySpec keySpec) {
+    try {
+      Mac hmac = Mac.getInstance(HMAC_SHA256);
+      hmac.init(keySpec);
+      return hmac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("初始化 " + HMAC_SHA256 + " 失败", e);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+-- 批量从全局令牌桶中租借令牌
+-- KEYS[i]：第 i 个令牌桶
+-- ARGV[(i-1)*3+1]：想要租借的令牌数
+-- ARGV[(i-1)*3+2]：每秒补充的令牌数
+-- ARGV[(i-1)*3+3]：桶容量
+-- 返回每个桶实际租借到的令牌数
+local now = redis.call('TIME')
+local now_ms = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000)
+local grants = {}
+for i, key in ipairs(KEYS) do
+  local base = (i - 1) * 3
+  local wanted = tonumber(ARGV[base + 1])
+  local rate = tonumber(ARGV[base + 2])
+  local capacity = tonumber(ARGV[base + 3])
+
+  local state = redis.call('HMGET', key, 'tokens', 'ts')
+  local tokens = tonumber(state[1]) or capacity
+  local ts = tonumber(state[2]) or now_ms
+  tokens = math.min(capacity, tokens + math.max(0, now_ms - ts) * rate / 1000)
+
+  local granted = math.min(wanted, math.floor(tokens))
+  tokens = tokens - granted
+  redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', now_ms)
+  -- 桶补满所需时间的两倍之后自动过期
+  redis.call('PEXPIRE', key, math.ceil(capacity / rate * 2000) + 1000)
+  grants[i] = granted
+end
+return grants
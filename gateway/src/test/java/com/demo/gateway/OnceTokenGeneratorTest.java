@@ -0,0 +1,50 @@
+package com.demo.gateway;
+
+import com.demo.gateway.properties.OnceTokenProperties;
+import com.demo.gateway.token.OnceTokenGenerator;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OnceTokenGeneratorTest {
+
+  private static final String SECRET = "test-secret-test-secret-0123456789";
+
+  @Test
+  void uuidIsVersion4() {
+    OnceTokenGenerator generator = generator();
+    UUID uuid = UUID.fromString(generator.uuid());
+    assertEquals(4, uuid.version());
+    assertEquals(2, uuid.variant());
+    assertNotEquals(generator.uuid(), generator.uuid());
+  }
+
+  @Test
+  void jwtIsSignedWithHs256() throws Exception {
+    String[] parts = generator().jwt().split("\\.");
+    assertEquals(3, parts.length);
+
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    byte[] expected = mac.doFinal((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+    assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString(expected), parts[2]);
+
+    String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+    assertTrue(payload.contains("\"iss\":\"gateway\""));
+    assertTrue(payload.contains("\"exp\":"));
+  }
+
+  private OnceTokenGenerator generator() {
+    OnceTokenProperties properties = new OnceTokenProperties();
+    properties.setJwtSecret(SECRET);
+    return new OnceTokenGenerator(properties);
+  }
+}
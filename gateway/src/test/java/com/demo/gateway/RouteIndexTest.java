@@ -0,0 +1,61 @@
+package com.demo.gateway;
+
+import com.demo.gateway.route.RouteIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RouteIndexTest {
+
+  private final List<Route> routes = List.of(
+      route("bing-route"), route("order-route"), route("order-detail-route"), route("no-path-route"),
+      route("product-route"));
+
+  private final RouteIndex index = RouteIndex.build(routes, List.of(
+      definition("bing-route", "Path=/search"),
+      definition("order-route", "Path=/api/order/**"),
+      definition("order-detail-route", "Path=/api/order/{id}/detail,/detail/**"),
+      definition("no-path-route", "Method=GET"),
+      definition("product-route", "Path=/api/product/**")));
+
+  @Test
+  void candidatesKeepRouteOrder() {
+    assertEquals(ids("order-route", "order-detail-route", "no-path-route"), ids(index.candidates("/api/order/1/detail")));
+    assertEquals(ids("order-route", "order-detail-route", "no-path-route"), ids(index.candidates("/api/order")));
+    assertEquals(ids("no-path-route", "product-route"), ids(index.candidates("/api/product/1")));
+    assertEquals(ids("bing-route", "no-path-route"), ids(index.candidates("/search")));
+    assertEquals(ids("order-detail-route", "no-path-route"), ids(index.candidates("/detail/1")));
+    assertEquals(ids("no-path-route"), ids(index.candidates("/unknown")));
+  }
+
+  @Test
+  void encodedPathFallsBackToAllRoutes() {
+    assertEquals(routes, index.candidates("/api/%6Frder/1"));
+  }
+
+  private static Route route(String id) {
+    return Route.async().id(id).uri(URI.create("http://localhost")).predicate(exchange -> true).build();
+  }
+
+  private static RouteDefinition definition(String id, String predicate) {
+    RouteDefinition definition = new RouteDefinition();
+    definition.setId(id);
+    definition.setUri(URI.create("http://localhost"));
+    definition.setPredicates(List.of(new PredicateDefinition(predicate)));
+    return definition;
+  }
+
+  private static List<String> ids(List<Route> routes) {
+    return routes.stream().map(Route::getId).toList();
+  }
+
+  private static List<String> ids(String... ids) {
+    return List.of(ids);
+  }
+}
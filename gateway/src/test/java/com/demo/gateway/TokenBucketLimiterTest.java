@@ -0,0 +1,42 @@
+package com.demo.gateway;
+
+import com.demo.gateway.properties.RateLimitProperties;
+import com.demo.gateway.ratelimit.BucketSpec;
+import com.demo.gateway.ratelimit.LocalTokenBucketLimiter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketLimiterTest {
+
+  @Test
+  void allowsBurstThenDenies() {
+    LocalTokenBucketLimiter limiter = new LocalTokenBucketLimiter(new RateLimitProperties());
+    BucketSpec spec = new BucketSpec(1, 5);
+    int allowed = 0;
+    for (int i = 0; i < 10; i++) {
+      if (limiter.tryAcquire("route:1.1.1.1", spec).block()) {
+        allowed++;
+      }
+    }
+    assertEquals(5, allowed);
+    // 不同 key 互不影响
+    assertTrue(limiter.tryAcquire("route:2.2.2.2", spec).block());
+  }
+
+  @Test
+  void refillsOverTime() throws InterruptedException {
+    LocalTokenBucketLimiter limiter = new LocalTokenBucketLimiter(new RateLimitProperties());
+    BucketSpec spec = new BucketSpec(100, 1);
+    assertTrue(limiter.tryAcquire("k", spec).block());
+    Thread.sleep(30);
+    assertTrue(limiter.tryAcquire("k", spec).block());
+  }
+
+  @Test
+  void rejectsInvalidSpec() {
+    assertThrows(IllegalArgumentException.class, () -> new BucketSpec(0, 10));
+  }
+}
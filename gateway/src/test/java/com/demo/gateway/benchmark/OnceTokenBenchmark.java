@@ -0,0 +1,67 @@
+package com.demo.gateway.benchmark;
+
+import com.demo.gateway.properties.OnceTokenProperties;
+import com.demo.gateway.token.OnceTokenGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次性令牌生成吞吐量（tokens/s）
+ * <p>
+ * 直接运行 main：先以单线程跑出每核吞吐，再以全部核心并发跑，对比 UUID.randomUUID() 的锁竞争
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnceTokenBenchmark {
+
+  private OnceTokenGenerator generator;
+
+  @Setup
+  public void setup() {
+    OnceTokenProperties properties = new OnceTokenProperties();
+    properties.setJwtSecret("benchmark-secret-benchmark-secret-0123456789");
+    generator = new OnceTokenGenerator(properties);
+  }
+
+  @Benchmark
+  public String jdkRandomUuid() {
+    return UUID.randomUUID().toString();
+  }
+
+  @Benchmark
+  public String uuid() {
+    return generator.uuid();
+  }
+
+  @Benchmark
+  public String jwt() {
+    return generator.jwt();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : new int[]{1, Runtime.getRuntime().availableProcessors()}) {
+      new Runner(new OptionsBuilder()
+          .include(OnceTokenBenchmark.class.getSimpleName())
+          .threads(threads)
+          .build()).run();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.demo.gateway.benchmark;
+
+import com.demo.gateway.route.RouteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路由匹配耗时：全量线性匹配 vs 前缀索引，请求命中最后一条路由（线性匹配的最坏情况）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int routeCount;
+
+  private List<Route> routes;
+  private RouteIndex routeIndex;
+  private String path;
+  private ServerWebExchange exchange;
+
+  @Setup
+  public void setup() {
+    PathRoutePredicateFactory pathFactory = new PathRoutePredicateFactory();
+    routes = new ArrayList<>(routeCount);
+    List<RouteDefinition> definitions = new ArrayList<>(routeCount);
+    for (int i = 0; i < routeCount; i++) {
+      String pattern = "/api/service-" + i + "/**";
+      PathRoutePredicateFactory.Config config = new PathRoutePredicateFactory.Config().setPatterns(List.of(pattern));
+      routes.add(Route.async()
+          .id("route-" + i)
+          .uri(URI.create("lb://service-" + i))
+          .order(i)
+          .asyncPredicate(pathFactory.applyAsync(config))
+          .build());
+
+      RouteDefinition definition = new RouteDefinition();
+      definition.setId("route-" + i);
+      definition.setUri(URI.create("lb://service-" + i));
+      definition.setPredicates(List.of(new PredicateDefinition("Path=" + pattern)));
+      definitions.add(definition);
+    }
+    routeIndex = RouteIndex.build(routes, definitions);
+    path = "/api/service-" + (routeCount - 1) + "/orders/1";
+    exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+  }
+
+  @Benchmark
+  public Route linear() {
+    return firstMatch(routes, exchange());
+  }
+
+  @Benchmark
+  public Route indexed() {
+    return firstMatch(routeIndex.candidates(path), exchange());
+  }
+
+  // 复用同一个 exchange，清掉断言缓存在属性里的中间结果，避免把构造 exchange 的开销算进去
+  private ServerWebExchange exchange() {
+    exchange.getAttributes().clear();
+    return exchange;
+  }
+
+  private static Route firstMatch(List<Route> candidates, ServerWebExchange exchange) {
+    return Flux.fromIterable(candidates)
+        .concatMap(route -> Mono.just(route).filterWhen(r -> r.getPredicate().apply(exchange)))
+        .next()
+        .block();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RoutingBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
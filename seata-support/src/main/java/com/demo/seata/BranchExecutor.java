@@ -0,0 +1,28 @@
+package com.demo.seata;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 在其他线程执行全局事务分支，XID 随任务带过去
+ * <p>
+ * 自己持有线程，不是 Executor 类型的 bean，不会让 Spring Boot 的 applicationTaskExecutor 退让，
+ * 也不会让按类型注入 Executor 的地方出现歧义。
+ */
+public class BranchExecutor implements AutoCloseable {
+
+  // 分支调用都是阻塞的远程调用，每个分支一个虚拟线程
+  private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+  private final XidPropagatingExecutor executor = new XidPropagatingExecutor(threads);
+
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> branch) {
+    return CompletableFuture.supplyAsync(branch, executor);
+  }
+
+  @Override
+  public void close() {
+    threads.close();
+  }
+}
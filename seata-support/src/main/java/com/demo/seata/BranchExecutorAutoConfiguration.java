@@ -0,0 +1,19 @@
+package com.demo.seata;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 并发执行全局事务分支的执行器，引入 seata-support 即生效
+ */
+@AutoConfiguration(after = TaskExecutionAutoConfiguration.class)
+public class BranchExecutorAutoConfiguration {
+
+  @Bean(destroyMethod = "close")
+  @ConditionalOnMissingBean
+  BranchExecutor branchExecutor() {
+    return new BranchExecutor();
+  }
+}
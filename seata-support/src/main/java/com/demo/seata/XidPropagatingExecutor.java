@@ -0,0 +1,39 @@
+package com.demo.seata;
+
+import org.apache.seata.core.context.RootContext;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 把提交任务时线程上的 Seata XID 带到执行线程，
+ * 这样异步线程里的 Feign 调用也会带上 TX_XID 请求头，加入同一个全局事务
+ */
+public class XidPropagatingExecutor implements Executor {
+
+  private final Executor delegate;
+
+  public XidPropagatingExecutor(Executor delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    String xid = RootContext.getXID();
+    if (xid == null) {
+      delegate.execute(command);
+      return;
+    }
+    delegate.execute(() -> {
+      String previous = RootContext.getXID();
+      RootContext.bind(xid);
+      try {
+        command.run();
+      } finally {
+        RootContext.unbind();
+        if (previous != null) {
+          RootContext.bind(previous);
+        }
+      }
+    });
+  }
+}
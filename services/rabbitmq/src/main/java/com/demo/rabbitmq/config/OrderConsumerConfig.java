@@ -0,0 +1,73 @@
+package com.demo.rabbitmq.config;
+
+import com.demo.rabbitmq.listener.MyMessageListener;
+import com.demo.rabbitmq.properties.OrderConsumerProperties;
+import com.demo.rabbitmq.retry.OrderRetryPublisher;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class OrderConsumerConfig {
+
+  /**
+   * queue.order 批量消费的监听容器：消费者线程一次取出一批消息交给监听方法，手动确认
+   */
+  @Bean
+  public SimpleRabbitListenerContainerFactory orderBatchContainerFactory(
+      SimpleRabbitListenerContainerFactoryConfigurer configurer,
+      ConnectionFactory connectionFactory,
+      OrderConsumerProperties properties) {
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    configurer.configure(factory, connectionFactory);
+    factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+    factory.setBatchListener(true);
+    factory.setConsumerBatchEnabled(true);
+    factory.setBatchSize(properties.getBatchSize());
+    factory.setReceiveTimeout(properties.getReceiveTimeout().toMillis());
+    factory.setPrefetchCount(Math.max(properties.getPrefetch(), properties.getBatchSize()));
+    factory.setConcurrentConsumers(properties.getConcurrency());
+    factory.setMaxConcurrentConsumers(Math.max(properties.getConcurrency(), properties.getMaxConcurrency()));
+    return factory;
+  }
+
+  /**
+   * queue.order 的重试拓扑：每个延迟一个 TTL 队列，过期后死信回 queue.order；另有一个死信队列保存最终失败的消息
+   */
+  @Bean
+  public Declarables orderRetryDeclarables(OrderConsumerProperties properties) {
+    List<Declarable> declarables = new ArrayList<>();
+    DirectExchange retryExchange = new DirectExchange(OrderRetryPublisher.EXCHANGE_RETRY);
+    declarables.add(retryExchange);
+    for (Duration delay : properties.getRetryDelays()) {
+      String name = OrderRetryPublisher.retryQueue(delay);
+      Queue queue = QueueBuilder.durable(name)
+          .ttl((int) delay.toMillis())
+          .deadLetterExchange(MyMessageListener.EXCHANGE_DIRECT)
+          .deadLetterRoutingKey(MyMessageListener.ROUTING_KEY)
+          .build();
+      declarables.add(queue);
+      declarables.add(BindingBuilder.bind(queue).to(retryExchange).with(name));
+    }
+    DirectExchange deadLetterExchange = new DirectExchange(OrderRetryPublisher.EXCHANGE_DEAD_LETTER);
+    Queue deadLetterQueue = QueueBuilder.durable(OrderRetryPublisher.QUEUE_DEAD_LETTER).build();
+    declarables.add(deadLetterExchange);
+    declarables.add(deadLetterQueue);
+    declarables.add(BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange)
+        .with(OrderRetryPublisher.ROUTING_KEY_DEAD_LETTER));
+    return new Declarables(declarables);
+  }
+}
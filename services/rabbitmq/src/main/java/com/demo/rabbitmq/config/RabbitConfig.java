@@ -1,5 +1,6 @@
 package com.demo.rabbitmq.config;
 
+import com.demo.rabbitmq.publisher.ReliablePublisher;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +15,7 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitConfig implements RabbitTemplate.ConfirmCallback, RabbitTemplate.ReturnsCallback {
 
   private final RabbitTemplate rabbitTemplate;
+  private final ReliablePublisher reliablePublisher;
 
   @PostConstruct
   public void initRabbitTemplate() {
@@ -23,20 +25,19 @@ public class RabbitConfig implements RabbitTemplate.ConfirmCallback, RabbitTempl
 
   @Override
   public void confirm(CorrelationData correlationData, boolean ack, String cause) {
-    // 消息发送到交换机成功或失败时调用这个方法
-    log.info("confirm() 回调函数打印 CorrelationData：{}", correlationData);
-    log.info("confirm() 回调函数打印 ack：{}", ack);
-    log.info("confirm() 回调函数打印 cause：{}", cause);
+    // 消息发送到交换机成功或失败时调用这个方法，由 ReliablePublisher 完成或重发对应的消息
+    if (!ack) {
+      log.warn("confirm() 消息未被 broker 接收：{}，{}", correlationData, cause);
+    }
+    reliablePublisher.onConfirm(correlationData, ack, cause);
   }
 
   @Override
   public void returnedMessage(ReturnedMessage returned) {
-    // 发送到队列失败时才调用这个方法
-    log.info("returnedMessage() 回调函数 消息主体: {}", new String(returned.getMessage().getBody()));
-    log.info("returnedMessage() 回调函数 应答码: {}", returned.getReplyCode());
-    log.info("returnedMessage() 回调函数 描述：{}", returned.getReplyText());
-    log.info("returnedMessage() 回调函数 消息使用的交换器 exchange : {}", returned.getExchange());
-    log.info("returnedMessage() 回调函数 消息使用的路由键 routing : {}", returned.getRoutingKey());
+    // 发送到队列失败时才调用这个方法，随后还会收到确认，重发在 confirm() 中处理
+    log.warn("returnedMessage() 消息不可路由：{} {}，exchange：{}，routing：{}，{} 字节",
+        returned.getReplyCode(), returned.getReplyText(), returned.getExchange(), returned.getRoutingKey(),
+        returned.getMessage().getBody().length);
   }
 
 }
@@ -0,0 +1,35 @@
+package com.demo.rabbitmq.controller;
+
+import com.demo.rabbitmq.timeout.OrderTimeoutScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+public class OrderTimeoutController {
+
+  private final OrderTimeoutScheduler orderTimeoutScheduler;
+
+  /**
+   * 安排订单超时，到期后发送到 exchange.direct.timeout
+   */
+  @GetMapping("/timeout/schedule")
+  public String schedule(@RequestParam("orderId") String orderId,
+                         @RequestParam("delayMillis") long delayMillis) {
+    orderTimeoutScheduler.schedule(orderId, Duration.ofMillis(delayMillis));
+    return "scheduled";
+  }
+
+  /**
+   * 取消订单超时
+   */
+  @GetMapping("/timeout/cancel")
+  public String cancel(@RequestParam("orderId") String orderId) {
+    orderTimeoutScheduler.cancel(orderId);
+    return "cancelled";
+  }
+}
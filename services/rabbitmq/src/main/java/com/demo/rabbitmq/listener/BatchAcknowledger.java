@@ -0,0 +1,55 @@
+package com.demo.rabbitmq.listener;
+
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 批量确认：逐条处理一批消息，失败的交给 failureHandler 转发（重试或死信），最后用一次 multiple=true 的 ack
+ * 确认到最大的已处理 tag
+ * <p>
+ * 同一个 channel 上的投递按 tag 递增，一批内的 tag 连续且之前的批次都已确认；
+ * 转发也失败的消息先单独 nack 放回队列，不再处于未确认状态，所以一次批量 ack 不会覆盖到它们。
+ */
+@Slf4j
+public final class BatchAcknowledger {
+
+  private BatchAcknowledger() {
+  }
+
+  /**
+   * @param handler        处理单条消息，抛出异常表示失败
+   * @param failureHandler 转发处理失败的消息，正常返回表示转发已被 broker 确认，原消息随后一起确认
+   * @return 处理失败的条数
+   */
+  public static int acknowledge(Channel channel, List<Message> messages, Consumer<Message> handler,
+                                BiConsumer<Message, Exception> failureHandler) throws IOException {
+    long highestSettled = -1;
+    int failed = 0;
+    for (Message message : messages) {
+      long deliveryTag = message.getMessageProperties().getDeliveryTag();
+      try {
+        handler.accept(message);
+      } catch (Exception e) {
+        failed++;
+        try {
+          failureHandler.accept(message, e);
+        } catch (Exception ex) {
+          log.warn("失败消息转发失败，放回队列：{}", ex.getMessage());
+          channel.basicNack(deliveryTag, false, true);
+          continue;
+        }
+      }
+      highestSettled = Math.max(highestSettled, deliveryTag);
+    }
+    if (highestSettled >= 0) {
+      channel.basicAck(highestSettled, true);
+    }
+    return failed;
+  }
+}
@@ -1,6 +1,8 @@
 package com.demo.rabbitmq.listener;
 
+import com.demo.rabbitmq.retry.OrderRetryPublisher;
 import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.Exchange;
@@ -10,9 +12,12 @@ import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class MyMessageListener {
 
   public static final String EXCHANGE_DIRECT = "exchange.direct.order";
@@ -23,12 +28,13 @@ public class MyMessageListener {
   public static final String ROUTING_KEY_TIMEOUT = "routing.key.timeout";
   public static final String QUEUE_NAME_TIMEOUT = "queue.timeout";
 
+  private final OrderRetryPublisher orderRetryPublisher;
 
   @RabbitListener(bindings = @QueueBinding(
       exchange = @Exchange(value = EXCHANGE_DIRECT),
       key = {ROUTING_KEY},
       value = @Queue(value = QUEUE_NAME, durable = "true")
-  ))
+  ), ackMode = "MANUAL", autoStartup = "#{!${consumer.order.batch:false}}")
   public void processMessage(String dataString, Message message, Channel channel) throws IOException {
     long deliveryTag = message.getMessageProperties().getDeliveryTag();
 
@@ -43,33 +49,35 @@ public class MyMessageListener {
 
     } catch (Exception e) {
 
-      // 获取当前消息是否是重复投递的
-      //      redelivered 为 true：说明当前消息已经重复投递过一次了
-      //      redelivered 为 false：说明当前消息是第一次投递
-      Boolean redelivered = message.getMessageProperties().getRedelivered();
-
-      // 核心操作失败：返回 NACK 信息
-      // requeue 参数：控制消息是否重新放回队列
-      //      取值为 true：重新放回队列，broker 会重新投递这个消息
-      //      取值为 false：不重新放回队列，broker 会丢弃这个消息
-
-      if (redelivered) {
-        // 如果当前消息已经是重复投递的，说明此前已经重试过一次啦，所以 requeue 设置为 false，表示不重新放回队列
-        channel.basicNack(deliveryTag, false, false);
-      } else {
-        // 如果当前消息是第一次投递，说明当前代码是第一次抛异常，尚未重试，所以 requeue 设置为 true，表示重新放回队列在投递一次
+      // 核心操作失败：不再 nack 放回队首（会立即重新投递、反复失败），
+      // 而是转发到延迟重试队列，重试次数用完后转入死信队列，转发得到 broker 确认后再确认原消息
+      try {
+        orderRetryPublisher.retryOrDeadLetter(message, e);
+      } catch (Exception ex) {
+        // 转发被 nack 或确认超时，放回队列
         channel.basicNack(deliveryTag, false, true);
+        return;
       }
-
-      // reject 表示拒绝
-      // 辨析：basicNack() 和 basicReject() 方法区别
-      // basicNack()能控制是否批量操作
-      // basicReject()不能控制是否批量操作
-      // channel.basicReject(deliveryTag, true);
+      channel.basicAck(deliveryTag, false);
     }
 
   }
 
+  /**
+   * queue.order 批量消费，与 processMessage 二选一，由 consumer.order.batch 切换
+   */
+  @RabbitListener(bindings = @QueueBinding(
+      exchange = @Exchange(value = EXCHANGE_DIRECT),
+      key = {ROUTING_KEY},
+      value = @Queue(value = QUEUE_NAME, durable = "true")
+  ), containerFactory = "orderBatchContainerFactory", autoStartup = "${consumer.order.batch:false}")
+  public void processMessageBatch(List<Message> messages, Channel channel) throws IOException {
+    BatchAcknowledger.acknowledge(channel, messages, message -> {
+      // 核心操作
+      log.info("消费端1批量接收到了消息：{}", new String(message.getBody(), StandardCharsets.UTF_8));
+    }, orderRetryPublisher::retryOrDeadLetter);
+  }
+
   @RabbitListener(bindings = @QueueBinding(
       exchange = @Exchange(value = EXCHANGE_DIRECT_TIMEOUT),
       key = {ROUTING_KEY_TIMEOUT},
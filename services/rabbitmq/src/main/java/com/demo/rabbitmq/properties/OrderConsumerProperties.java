@@ -0,0 +1,43 @@
+package com.demo.rabbitmq.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "consumer.order")
+@Data
+public class OrderConsumerProperties {
+
+  /**
+   * 批量消费 queue.order；关闭时逐条消费、逐条确认
+   */
+  boolean batch = false;
+
+  /**
+   * 每批最多处理的消息数
+   */
+  int batchSize = 100;
+
+  /**
+   * 不足一批时最多等待的时间
+   */
+  Duration receiveTimeout = Duration.ofMillis(200);
+
+  /**
+   * 每个消费者未确认消息的上限，至少要大于一批，否则永远攒不满
+   */
+  int prefetch = 250;
+
+  int concurrency = 1;
+
+  int maxConcurrency = 1;
+
+  /**
+   * 处理失败后依次进入的延迟重试队列，全部重试失败后进入死信队列
+   */
+  List<Duration> retryDelays = List.of(Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(60));
+}
@@ -0,0 +1,33 @@
+package com.demo.rabbitmq.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "publisher")
+@Data
+public class PublisherProperties {
+
+  /**
+   * 已发送但还没有收到 broker 确认的消息上限，达到上限后发送方阻塞等待
+   */
+  int maxInFlight = 1000;
+
+  /**
+   * 发送方等待窗口空出的最长时间
+   */
+  Duration acquireTimeout = Duration.ofSeconds(5);
+
+  /**
+   * 被 nack 或退回时最多发送的次数（包括第一次）
+   */
+  int maxAttempts = 3;
+
+  /**
+   * 同步等待确认的最长时间，超时按发送失败处理
+   */
+  Duration confirmTimeout = Duration.ofSeconds(5);
+}
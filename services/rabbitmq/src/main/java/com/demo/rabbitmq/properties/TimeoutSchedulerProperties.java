@@ -0,0 +1,43 @@
+package com.demo.rabbitmq.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "timeout.scheduler")
+@Data
+public class TimeoutSchedulerProperties {
+
+  /**
+   * 时间轮每格的时长，即超时触发的精度
+   */
+  Duration tick = Duration.ofMillis(100);
+
+  /**
+   * 每层时间轮的格数
+   */
+  int wheelSize = 512;
+
+  /**
+   * 本地追加日志的路径
+   */
+  String logFile = System.getProperty("user.home") + "/logs/rabbitmq/order-timeout.log";
+
+  /**
+   * 每次写入后是否刷盘；关闭时只写到操作系统，进程崩溃不丢，机器掉电可能丢最近的写入
+   */
+  boolean fsync = false;
+
+  /**
+   * 日志记录数超过这个值、且超过未完成任务数的两倍时重写日志
+   */
+  long compactThreshold = 100_000;
+
+  /**
+   * 超时消息发送失败后重新触发的间隔
+   */
+  Duration retryDelay = Duration.ofSeconds(1);
+}
@@ -0,0 +1,200 @@
+package com.demo.rabbitmq.publisher;
+
+import com.demo.rabbitmq.properties.PublisherProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步确认的发送方
+ * <p>
+ * 每条消息分配一个序号作为 CorrelationData 的 id，登记到未确认索引后发送，不等待确认；
+ * broker 确认后从索引中移除并完成该消息的 future。被 nack 或因为不可路由被退回的消息自动重发，
+ * 超过 max-attempts 后 future 以异常结束。未确认的消息数受 max-in-flight 限制，达到上限时发送方阻塞。
+ */
+@Slf4j
+@Component
+public class ReliablePublisher {
+
+  private final RabbitTemplate rabbitTemplate;
+  private final PublisherProperties properties;
+  private final Executor republishExecutor;
+  private final Semaphore window;
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<Long, Outstanding> outstanding = new ConcurrentHashMap<>();
+
+  @Autowired
+  public ReliablePublisher(RabbitTemplate rabbitTemplate, PublisherProperties properties) {
+    // 确认回调在连接线程上执行，重发交给单独的线程
+    this(rabbitTemplate, properties, Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  ReliablePublisher(RabbitTemplate rabbitTemplate, PublisherProperties properties, Executor republishExecutor) {
+    this.rabbitTemplate = rabbitTemplate;
+    this.properties = properties;
+    this.republishExecutor = republishExecutor;
+    this.window = new Semaphore(properties.getMaxInFlight());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (republishExecutor instanceof ExecutorService executorService) {
+      executorService.shutdown();
+    }
+  }
+
+  /**
+   * 发送消息，返回的 future 在 broker 确认后完成，最终失败时以异常结束
+   *
+   * @throws AmqpTimeoutException 等待 acquire-timeout 后未确认的消息仍然达到上限
+   */
+  public CompletableFuture<Void> publish(String exchange, String routingKey, Object payload) {
+    return publishMessage(exchange, routingKey, rabbitTemplate.getMessageConverter().toMessage(payload, null));
+  }
+
+  /**
+   * 发送已经构造好的消息，消息头和属性原样保留，用于转发收到的消息
+   *
+   * @throws AmqpTimeoutException 等待 acquire-timeout 后未确认的消息仍然达到上限
+   */
+  public CompletableFuture<Void> publishMessage(String exchange, String routingKey, Message message) {
+    try {
+      if (!window.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new AmqpTimeoutException("未确认的消息达到上限：" + properties.getMaxInFlight());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AmqpException("等待发送窗口时被中断", e);
+    }
+    Outstanding entry = new Outstanding(sequence.incrementAndGet(), exchange, routingKey, message);
+    send(entry);
+    return entry.result;
+  }
+
+  /**
+   * 阻塞等待 {@link #publish} 返回的 future，最多 confirm-timeout
+   *
+   * @throws AmqpException 最终被 nack、退回、发送失败或等待超时
+   */
+  public void awaitConfirm(CompletableFuture<Void> confirmed) {
+    try {
+      confirmed.get(properties.getConfirmTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new AmqpTimeoutException("等待 broker 确认超时：" + properties.getConfirmTimeout());
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof AmqpException cause) {
+        throw cause;
+      }
+      throw new AmqpException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AmqpException("等待 broker 确认时被中断", e);
+    }
+  }
+
+  /**
+   * 已发送、还没有最终结果的消息数
+   */
+  public int outstanding() {
+    return outstanding.size();
+  }
+
+  /**
+   * 由 RabbitTemplate.ConfirmCallback 调用；不是通过本类发送的消息直接忽略
+   */
+  public void onConfirm(CorrelationData correlationData, boolean ack, String cause) {
+    if (correlationData == null) {
+      return;
+    }
+    Outstanding entry = outstanding.remove(parseSequence(correlationData.getId()));
+    if (entry == null) {
+      return;
+    }
+    // 不可路由的消息先退回再确认，退回信息已经设置在 CorrelationData 上
+    ReturnedMessage returned = correlationData.getReturned();
+    if (ack && returned == null) {
+      complete(entry);
+      return;
+    }
+    String reason = returned != null
+        ? "退回 " + returned.getReplyCode() + " " + returned.getReplyText()
+        : "nack " + cause;
+    if (entry.attempts >= properties.getMaxAttempts()) {
+      fail(entry, new AmqpException("消息 " + entry.sequence + " 发送 " + entry.attempts + " 次仍失败：" + reason));
+      return;
+    }
+    log.warn("消息 {} 第 {} 次发送失败，重发：{}", entry.sequence, entry.attempts, reason);
+    republishExecutor.execute(() -> send(entry));
+  }
+
+  private void send(Outstanding entry) {
+    entry.attempts++;
+    outstanding.put(entry.sequence, entry);
+    try {
+      rabbitTemplate.send(entry.exchange, entry.routingKey, entry.message,
+          new CorrelationData(Long.toString(entry.sequence)));
+    } catch (RuntimeException e) {
+      // 没有发出去，不会再有确认
+      if (outstanding.remove(entry.sequence, entry)) {
+        fail(entry, e);
+      }
+      if (entry.attempts == 1) {
+        throw e;
+      }
+    }
+  }
+
+  private void complete(Outstanding entry) {
+    window.release();
+    entry.result.complete(null);
+  }
+
+  private void fail(Outstanding entry, Exception e) {
+    window.release();
+    entry.result.completeExceptionally(e);
+  }
+
+  private static long parseSequence(String id) {
+    try {
+      return Long.parseLong(id);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static final class Outstanding {
+
+    private final long sequence;
+    private final String exchange;
+    private final String routingKey;
+    private final Message message;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    private int attempts;
+
+    private Outstanding(long sequence, String exchange, String routingKey, Message message) {
+      this.sequence = sequence;
+      this.exchange = exchange;
+      this.routingKey = routingKey;
+      this.message = message;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.demo.rabbitmq.retry;
+
+import com.demo.rabbitmq.properties.OrderConsumerProperties;
+import com.demo.rabbitmq.publisher.ReliablePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * queue.order 处理失败的消息：按已重试次数转发到对应的延迟队列，次数用完转发到死信队列
+ * <p>
+ * 延迟队列没有消费者，消息过期后由 broker 死信回 exchange.direct.order，重新投递到 queue.order。
+ * 转发经 ReliablePublisher 发送并同步等待 broker 确认，确认后调用方才确认原消息，失败的消息不会回到队首反复投递；
+ * 转发被 nack 或等待确认超时时抛出异常，调用方把原消息放回队列，消息不会丢失（可能重复）。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderRetryPublisher {
+
+  public static final String EXCHANGE_RETRY = "exchange.direct.order.retry";
+  public static final String QUEUE_RETRY_PREFIX = "queue.order.retry.";
+
+  public static final String EXCHANGE_DEAD_LETTER = "exchange.direct.order.dlx";
+  public static final String ROUTING_KEY_DEAD_LETTER = "order.dead";
+  public static final String QUEUE_DEAD_LETTER = "queue.order.dlq";
+
+  /**
+   * 已经重试的次数
+   */
+  public static final String HEADER_RETRY_COUNT = "x-retry-count";
+  public static final String HEADER_EXCEPTION = "x-exception-message";
+
+  private final ReliablePublisher reliablePublisher;
+  private final OrderConsumerProperties properties;
+
+  /**
+   * 延迟队列名同时作为路由键，按延迟时间命名，修改延迟时间会声明新的队列而不是与已有队列的参数冲突
+   */
+  public static String retryQueue(Duration delay) {
+    return QUEUE_RETRY_PREFIX + delay.toMillis() + "ms";
+  }
+
+  /**
+   * @throws AmqpException 转发没有得到 broker 确认
+   */
+  public void retryOrDeadLetter(Message message, Exception cause) {
+    MessageProperties messageProperties = message.getMessageProperties();
+    Number retried = messageProperties.getHeader(HEADER_RETRY_COUNT);
+    int retryCount = retried == null ? 0 : retried.intValue();
+    messageProperties.setHeader(HEADER_EXCEPTION, String.valueOf(cause.getMessage()));
+    if (retryCount < properties.getRetryDelays().size()) {
+      Duration delay = properties.getRetryDelays().get(retryCount);
+      messageProperties.setHeader(HEADER_RETRY_COUNT, retryCount + 1);
+      log.info("消息第 {} 次处理失败，{} 后重试：{}", retryCount + 1, delay, cause.getMessage());
+      reliablePublisher.awaitConfirm(reliablePublisher.publishMessage(EXCHANGE_RETRY, retryQueue(delay), message));
+    } else {
+      log.warn("消息重试 {} 次仍然失败，转入死信队列：{}", retryCount, cause.getMessage());
+      reliablePublisher.awaitConfirm(
+          reliablePublisher.publishMessage(EXCHANGE_DEAD_LETTER, ROUTING_KEY_DEAD_LETTER, message));
+    }
+  }
+}
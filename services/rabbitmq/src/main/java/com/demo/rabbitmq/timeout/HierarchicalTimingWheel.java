@@ -0,0 +1,208 @@
+package com.demo.rabbitmq.timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * <p>
+ * 第 0 层每格 tick 毫秒，共 wheelSize 格；第 n 层每格是第 n-1 层一整圈的时长，层数按需增加。
+ * 到期时间在当前层一圈以内的任务放进对应的格子，否则放到更高层；时间走到高层某一格时，
+ * 把该格的任务重新放入低层。添加、取消都是 O(1)，推进时间的开销只与经过的 tick 数和到期的任务数有关。
+ * 非线程安全，由调度线程独占使用。
+ */
+public class HierarchicalTimingWheel<T> {
+
+  private final long tickMillis;
+  private final int wheelSize;
+  private final List<Bucket<T>[]> levels = new ArrayList<>();
+  private final List<Long> levelTicks = new ArrayList<>();
+  /**
+   * 当前时间，对齐到 tick
+   */
+  private long currentTick;
+  private int size;
+
+  public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+    if (tickMillis <= 0 || wheelSize < 2) {
+      throw new IllegalArgumentException("tickMillis 必须大于 0，wheelSize 至少为 2");
+    }
+    this.tickMillis = tickMillis;
+    this.wheelSize = wheelSize;
+    this.currentTick = startMillis / tickMillis;
+    addLevel();
+  }
+
+  /**
+   * 添加任务
+   *
+   * @return 任务句柄，用于取消；已经到期时返回 null，由调用方立即处理
+   */
+  public Timeout<T> add(long deadlineMillis, T value) {
+    Timeout<T> timeout = new Timeout<>(deadlineMillis, value);
+    if (!place(timeout)) {
+      return null;
+    }
+    size++;
+    return timeout;
+  }
+
+  public boolean cancel(Timeout<T> timeout) {
+    if (timeout.bucket == null) {
+      return false;
+    }
+    timeout.unlink();
+    size--;
+    return true;
+  }
+
+  /**
+   * 推进到 nowMillis，依次交出所有到期的任务
+   */
+  public void advance(long nowMillis, Consumer<T> expired) {
+    long targetTick = nowMillis / tickMillis;
+    while (currentTick < targetTick) {
+      currentTick++;
+      // 先从高层往低层下放，再处理第 0 层当前格
+      for (int level = levels.size() - 1; level > 0; level--) {
+        long ticks = levelTicks.get(level);
+        if (currentTick % ticks == 0) {
+          Timeout<T> timeout = levels.get(level)[(int) ((currentTick / ticks) % wheelSize)].drain();
+          while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.next = null;
+            if (!place(timeout)) {
+              size--;
+              expired.accept(timeout.value);
+            }
+            timeout = next;
+          }
+        }
+      }
+      Timeout<T> timeout = levels.get(0)[(int) (currentTick % wheelSize)].drain();
+      while (timeout != null) {
+        Timeout<T> next = timeout.next;
+        timeout.next = null;
+        size--;
+        expired.accept(timeout.value);
+        timeout = next;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long currentMillis() {
+    return currentTick * tickMillis;
+  }
+
+  /**
+   * 放入能容纳到期时间的最低一层
+   *
+   * @return 已经到期时返回 false
+   */
+  private boolean place(Timeout<T> timeout) {
+    // 向上取整，保证不会早于到期时间触发
+    long deadlineTick = Math.ceilDiv(timeout.deadlineMillis, tickMillis);
+    if (deadlineTick <= currentTick) {
+      return false;
+    }
+    for (int level = 0; ; level++) {
+      if (level == levels.size()) {
+        addLevel();
+      }
+      long ticks = levelTicks.get(level);
+      long slot = deadlineTick / ticks;
+      if (slot - currentTick / ticks < wheelSize) {
+        levels.get(level)[(int) (slot % wheelSize)].append(timeout);
+        return true;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addLevel() {
+    Bucket<T>[] buckets = new Bucket[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      buckets[i] = new Bucket<>();
+    }
+    levelTicks.add(levels.isEmpty() ? 1L : Math.multiplyExact(levelTicks.get(levels.size() - 1), (long) wheelSize));
+    levels.add(buckets);
+  }
+
+  public static final class Timeout<T> {
+
+    private final long deadlineMillis;
+    private final T value;
+    private Bucket<T> bucket;
+    private Timeout<T> prev;
+    private Timeout<T> next;
+
+    private Timeout(long deadlineMillis, T value) {
+      this.deadlineMillis = deadlineMillis;
+      this.value = value;
+    }
+
+    public long deadlineMillis() {
+      return deadlineMillis;
+    }
+
+    public T value() {
+      return value;
+    }
+
+    private void unlink() {
+      if (prev == null) {
+        bucket.head = next;
+      } else {
+        prev.next = next;
+      }
+      if (next == null) {
+        bucket.tail = prev;
+      } else {
+        next.prev = prev;
+      }
+      bucket = null;
+      prev = null;
+      next = null;
+    }
+  }
+
+  /**
+   * 一个格子：双向链表，支持 O(1) 取消
+   */
+  private static final class Bucket<T> {
+
+    private Timeout<T> head;
+    private Timeout<T> tail;
+
+    private void append(Timeout<T> timeout) {
+      timeout.bucket = this;
+      timeout.prev = tail;
+      timeout.next = null;
+      if (tail == null) {
+        head = timeout;
+      } else {
+        tail.next = timeout;
+      }
+      tail = timeout;
+    }
+
+    /**
+     * 取出整条链表，返回表头，之后沿 next 遍历
+     */
+    private Timeout<T> drain() {
+      Timeout<T> first = head;
+      for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+        timeout.bucket = null;
+        timeout.prev = null;
+      }
+      head = null;
+      tail = null;
+      return first;
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.demo.rabbitmq.timeout;
+
+import com.demo.rabbitmq.listener.MyMessageListener;
+import com.demo.rabbitmq.properties.TimeoutSchedulerProperties;
+import com.demo.rabbitmq.publisher.ReliablePublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 订单超时调度：到期时把订单号发送到 exchange.direct.timeout
+ * <p>
+ * 待触发的超时放在分层时间轮里，不需要为每种延迟建一个 TTL 队列。时间轮、索引和日志都只由调度线程访问，
+ * 其他线程的调度 / 取消请求通过命令队列交给调度线程。每条命令先追加到本地日志再生效，
+ * 消息被 broker 确认后才记录已触发，所以重启回放后未确认的超时会再触发一次（至少一次）。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderTimeoutScheduler {
+
+  private final ReliablePublisher reliablePublisher;
+  private final TimeoutSchedulerProperties properties;
+
+  private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+  /**
+   * 时间轮中的超时：订单号 -> 句柄
+   */
+  private final Map<String, HierarchicalTimingWheel.Timeout<String>> pending = new HashMap<>();
+  /**
+   * 已经发送、等待 broker 确认的超时：订单号 -> 到期时间
+   */
+  private final Map<String, Long> firing = new HashMap<>();
+
+  private HierarchicalTimingWheel<String> wheel;
+  private TimeoutLog timeoutLog;
+  private Thread worker;
+  private volatile boolean running;
+
+  @PostConstruct
+  public void start() throws IOException {
+    Map<String, Long> recovered = new LinkedHashMap<>();
+    timeoutLog = TimeoutLog.open(Path.of(properties.getLogFile()), properties.isFsync(), recovered);
+    wheel = new HierarchicalTimingWheel<>(properties.getTick().toMillis(), properties.getWheelSize(),
+        System.currentTimeMillis());
+    for (Map.Entry<String, Long> entry : recovered.entrySet()) {
+      commands.add(new Command(CommandType.RECOVER, entry.getKey(), entry.getValue()));
+    }
+    log.info("从超时日志恢复 {} 个未完成的订单超时", recovered.size());
+    running = true;
+    worker = Thread.ofPlatform().name("order-timeout-wheel").daemon().start(this::run);
+  }
+
+  @PreDestroy
+  public void stop() throws Exception {
+    running = false;
+    LockSupport.unpark(worker);
+    worker.join();
+    timeoutLog.close();
+  }
+
+  /**
+   * 安排订单在 delay 之后超时；同一个订单重复安排时以最后一次为准
+   */
+  public void schedule(String orderId, Duration delay) {
+    commands.add(new Command(CommandType.SCHEDULE, orderId, System.currentTimeMillis() + delay.toMillis()));
+  }
+
+  /**
+   * 取消订单超时（例如订单已支付）；已经发出的消息无法撤回，但发送失败后不会再重试
+   */
+  public void cancel(String orderId) {
+    commands.add(new Command(CommandType.CANCEL, orderId, 0));
+  }
+
+  private void run() {
+    long tickNanos = properties.getTick().toNanos();
+    while (running) {
+      try {
+        Command command;
+        while ((command = commands.poll()) != null) {
+          apply(command);
+        }
+        wheel.advance(System.currentTimeMillis(), this::fire);
+        timeoutLog.flush();
+        compactIfNeeded();
+      } catch (Exception e) {
+        log.error("订单超时调度异常", e);
+      }
+      LockSupport.parkNanos(tickNanos);
+    }
+  }
+
+  private void apply(Command command) throws IOException {
+    switch (command.type()) {
+      case SCHEDULE -> {
+        timeoutLog.schedule(command.orderId(), command.deadlineMillis());
+        add(command.orderId(), command.deadlineMillis());
+      }
+      case RECOVER -> add(command.orderId(), command.deadlineMillis());
+      case CANCEL -> {
+        HierarchicalTimingWheel.Timeout<String> timeout = pending.remove(command.orderId());
+        if (timeout != null) {
+          wheel.cancel(timeout);
+        }
+        // 正在发送的超时也不再重试；无论是否还在等待都记录取消，回放时不会再恢复
+        firing.remove(command.orderId());
+        timeoutLog.cancel(command.orderId());
+      }
+      case FIRED -> {
+        firing.remove(command.orderId());
+        timeoutLog.fired(command.orderId());
+        // 发送期间又重新安排了超时，重新记录，避免回放时被这条 FIRED 抵消
+        HierarchicalTimingWheel.Timeout<String> rescheduled = pending.get(command.orderId());
+        if (rescheduled != null) {
+          timeoutLog.schedule(command.orderId(), rescheduled.deadlineMillis());
+        }
+      }
+      case RETRY -> {
+        // 发送期间被取消或重新安排过的，不再按重试间隔重新加入
+        if (firing.remove(command.orderId()) != null && !pending.containsKey(command.orderId())) {
+          add(command.orderId(), System.currentTimeMillis() + properties.getRetryDelay().toMillis());
+        }
+      }
+    }
+  }
+
+  private void add(String orderId, long deadlineMillis) {
+    HierarchicalTimingWheel.Timeout<String> previous = pending.remove(orderId);
+    if (previous != null) {
+      wheel.cancel(previous);
+    }
+    HierarchicalTimingWheel.Timeout<String> timeout = wheel.add(deadlineMillis, orderId);
+    if (timeout == null) {
+      firing.put(orderId, deadlineMillis);
+      publish(orderId);
+    } else {
+      pending.put(orderId, timeout);
+    }
+  }
+
+  private void fire(String orderId) {
+    HierarchicalTimingWheel.Timeout<String> timeout = pending.remove(orderId);
+    firing.put(orderId, timeout == null ? System.currentTimeMillis() : timeout.deadlineMillis());
+    publish(orderId);
+  }
+
+  private void publish(String orderId) {
+    try {
+      reliablePublisher.publish(MyMessageListener.EXCHANGE_DIRECT_TIMEOUT, MyMessageListener.ROUTING_KEY_TIMEOUT,
+              orderId)
+          .whenComplete((ignored, e) -> commands.add(
+              new Command(e == null ? CommandType.FIRED : CommandType.RETRY, orderId, 0)));
+    } catch (Exception e) {
+      log.warn("订单 {} 超时消息发送失败，稍后重试：{}", orderId, e.getMessage());
+      commands.add(new Command(CommandType.RETRY, orderId, 0));
+    }
+  }
+
+  private void compactIfNeeded() throws IOException {
+    long live = pending.size() + firing.size();
+    if (timeoutLog.records() < properties.getCompactThreshold() || timeoutLog.records() < live * 2) {
+      return;
+    }
+    Map<String, Long> snapshot = new LinkedHashMap<>(firing);
+    for (Map.Entry<String, HierarchicalTimingWheel.Timeout<String>> entry : pending.entrySet()) {
+      snapshot.put(entry.getKey(), entry.getValue().deadlineMillis());
+    }
+    timeoutLog.compact(snapshot);
+    log.info("超时日志已重写，保留 {} 个未完成的订单超时", snapshot.size());
+  }
+
+  private enum CommandType {
+    SCHEDULE, RECOVER, CANCEL, FIRED, RETRY
+  }
+
+  private record Command(CommandType type, String orderId, long deadlineMillis) {
+  }
+}
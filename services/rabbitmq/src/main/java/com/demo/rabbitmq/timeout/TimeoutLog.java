@@ -0,0 +1,195 @@
+package com.demo.rabbitmq.timeout;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 超时任务的本地追加日志，用于进程重启后恢复时间轮
+ * <p>
+ * 每条记录：类型（1 字节）、订单号、到期时间（仅 SCHEDULE）。只追加不修改，
+ * 记录数超过阈值后用当前未完成的任务重写一份新文件再原子替换。末尾写了一半的记录在恢复时截断。
+ */
+@Slf4j
+public class TimeoutLog implements Closeable {
+
+  private static final byte SCHEDULE = 1;
+  private static final byte CANCEL = 2;
+  private static final byte FIRED = 3;
+
+  private final Path path;
+  private final boolean fsync;
+  private FileOutputStream file;
+  private DataOutputStream out;
+  private long records;
+
+  private TimeoutLog(Path path, boolean fsync) {
+    this.path = path;
+    this.fsync = fsync;
+  }
+
+  /**
+   * 打开日志并回放
+   *
+   * @param pending 回放得到的未完成任务：订单号 -> 到期时间
+   */
+  public static TimeoutLog open(Path path, boolean fsync, Map<String, Long> pending) throws IOException {
+    TimeoutLog timeoutLog = new TimeoutLog(path, fsync);
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    if (Files.exists(path)) {
+      long valid = timeoutLog.replay(pending);
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+        if (channel.size() > valid) {
+          log.warn("超时日志末尾有不完整的记录，截断 {} 字节", channel.size() - valid);
+          channel.truncate(valid);
+        }
+      }
+    }
+    timeoutLog.openForAppend();
+    return timeoutLog;
+  }
+
+  public void schedule(String orderId, long deadlineMillis) throws IOException {
+    out.writeByte(SCHEDULE);
+    out.writeUTF(orderId);
+    out.writeLong(deadlineMillis);
+    records++;
+  }
+
+  public void cancel(String orderId) throws IOException {
+    out.writeByte(CANCEL);
+    out.writeUTF(orderId);
+    records++;
+  }
+
+  public void fired(String orderId) throws IOException {
+    out.writeByte(FIRED);
+    out.writeUTF(orderId);
+    records++;
+  }
+
+  /**
+   * 写入操作系统；开启 fsync 时同时刷到磁盘
+   */
+  public void flush() throws IOException {
+    out.flush();
+    if (fsync) {
+      file.getFD().sync();
+    }
+  }
+
+  public long records() {
+    return records;
+  }
+
+  /**
+   * 只保留未完成的任务重写日志
+   */
+  public void compact(Map<String, Long> pending) throws IOException {
+    flush();
+    Path tmp = path.resolveSibling(path.getFileName() + ".compact");
+    try (FileOutputStream tmpFile = new FileOutputStream(tmp.toFile());
+         DataOutputStream tmpOut = new DataOutputStream(new BufferedOutputStream(tmpFile))) {
+      for (Map.Entry<String, Long> entry : pending.entrySet()) {
+        tmpOut.writeByte(SCHEDULE);
+        tmpOut.writeUTF(entry.getKey());
+        tmpOut.writeLong(entry.getValue());
+      }
+      tmpOut.flush();
+      tmpFile.getFD().sync();
+    }
+    close();
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    openForAppend();
+    records = pending.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (out != null) {
+      out.close();
+      out = null;
+    }
+  }
+
+  /**
+   * @return 最后一条完整记录之后的偏移量
+   */
+  private long replay(Map<String, Long> pending) throws IOException {
+    long valid = 0;
+    try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path)));
+         DataInputStream in = new DataInputStream(counter)) {
+      while (true) {
+        byte type;
+        try {
+          type = in.readByte();
+          String orderId = in.readUTF();
+          switch (type) {
+            case SCHEDULE -> pending.put(orderId, in.readLong());
+            case CANCEL, FIRED -> pending.remove(orderId);
+            default -> throw new IOException("未知的记录类型：" + type);
+          }
+        } catch (EOFException e) {
+          return valid;
+        }
+        records++;
+        valid = counter.count;
+      }
+    }
+  }
+
+  private void openForAppend() throws IOException {
+    file = new FileOutputStream(path.toFile(), true);
+    out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024));
+  }
+
+  private static final class CountingInputStream extends InputStream {
+
+    private final InputStream in;
+    private long count;
+
+    private CountingInputStream(InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int n = in.read(buffer, offset, length);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
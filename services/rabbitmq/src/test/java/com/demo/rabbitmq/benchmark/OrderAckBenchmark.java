@@ -0,0 +1,114 @@
+package com.demo.rabbitmq.benchmark;
+
+import com.demo.rabbitmq.listener.BatchAcknowledger;
+import com.rabbitmq.client.Channel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 逐条确认与批量确认的消费吞吐（条/秒）
+ * <p>
+ * 没有真实 broker，用一个桩 channel 代替：每次 basicAck / basicNack 忙等 frameCostNanos，
+ * 模拟一次帧编码、写 socket 和 broker 处理确认的开销。failurePercent 为处理失败的比例，
+ * 失败的消息转发到重试队列同样按一帧计算。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class OrderAckBenchmark {
+
+  private static final int BATCH_SIZE = 100;
+
+  @Param({"single", "batch"})
+  public String mode;
+
+  @Param({"0", "1"})
+  public int failurePercent;
+
+  @Param({"5000"})
+  public long frameCostNanos;
+
+  private Channel channel;
+  private List<Message> batch;
+  private Consumer<Message> handler;
+  private BiConsumer<Message, Exception> failureHandler;
+  private long nextTag;
+
+  @Setup
+  public void setUp() {
+    channel = (Channel) Proxy.newProxyInstance(Channel.class.getClassLoader(), new Class<?>[]{Channel.class},
+        (proxy, method, args) -> {
+          sendFrame();
+          return null;
+        });
+    failureHandler = (message, e) -> sendFrame();
+    batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      MessageProperties properties = new MessageProperties();
+      // 每 100 条里前 failurePercent 条处理失败
+      properties.setHeader("fail", i < failurePercent);
+      batch.add(new Message(("order-" + i).getBytes(StandardCharsets.UTF_8), properties));
+    }
+    handler = message -> {
+      if (Boolean.TRUE.equals(message.getMessageProperties().getHeader("fail"))) {
+        throw new IllegalStateException("fail");
+      }
+    };
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public int consume() throws IOException {
+    for (Message message : batch) {
+      message.getMessageProperties().setDeliveryTag(++nextTag);
+    }
+    if ("batch".equals(mode)) {
+      return BatchAcknowledger.acknowledge(channel, batch, handler, failureHandler);
+    }
+    int failed = 0;
+    for (Message message : batch) {
+      long deliveryTag = message.getMessageProperties().getDeliveryTag();
+      try {
+        handler.accept(message);
+      } catch (Exception e) {
+        failureHandler.accept(message, e);
+        failed++;
+      }
+      channel.basicAck(deliveryTag, false);
+    }
+    return failed;
+  }
+
+  private void sendFrame() {
+    long deadline = System.nanoTime() + frameCostNanos;
+    while (System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+        .include(OrderAckBenchmark.class.getSimpleName())
+        .warmupIterations(2)
+        .measurementIterations(3)
+        .forks(1)
+        .build()).run();
+  }
+}
@@ -0,0 +1,64 @@
+package com.demo.rabbitmq.listener;
+
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class BatchAcknowledgerTest {
+
+  @Test
+  void forwardsFailuresAndAcksWholeBatchOnce() throws Exception {
+    Channel channel = mock(Channel.class);
+    List<Long> forwarded = new ArrayList<>();
+    List<Message> batch = List.of(message(11, "ok"), message(12, "fail"), message(13, "ok"), message(14, "fail"));
+
+    int failed = BatchAcknowledger.acknowledge(channel, batch, BatchAcknowledgerTest::handle,
+        (message, e) -> forwarded.add(message.getMessageProperties().getDeliveryTag()));
+
+    assertEquals(2, failed);
+    assertEquals(List.of(12L, 14L), forwarded);
+    verify(channel).basicAck(14, true);
+    verifyNoMoreInteractions(channel);
+  }
+
+  @Test
+  void nacksWhenForwardingFails() throws Exception {
+    Channel channel = mock(Channel.class);
+    List<Message> batch = List.of(message(1, "ok"), message(2, "fail"), message(3, "fail"));
+
+    BatchAcknowledger.acknowledge(channel, batch, BatchAcknowledgerTest::handle, (message, e) -> {
+      if (message.getMessageProperties().getDeliveryTag() == 3) {
+        throw new IllegalStateException("broker down");
+      }
+    });
+
+    InOrder order = inOrder(channel);
+    order.verify(channel).basicNack(3, false, true);
+    order.verify(channel).basicAck(2, true);
+    verifyNoMoreInteractions(channel);
+  }
+
+  private static void handle(Message message) {
+    if ("fail".equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+      throw new IllegalStateException("fail");
+    }
+  }
+
+  private static Message message(long deliveryTag, String body) {
+    MessageProperties properties = new MessageProperties();
+    properties.setDeliveryTag(deliveryTag);
+    return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+  }
+}
@@ -0,0 +1,117 @@
+package com.demo.rabbitmq.publisher;
+
+import com.demo.rabbitmq.properties.PublisherProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReliablePublisherTest {
+
+  private RabbitTemplate rabbitTemplate;
+  private PublisherProperties properties;
+  private ReliablePublisher publisher;
+
+  @BeforeEach
+  void setUp() {
+    rabbitTemplate = mock(RabbitTemplate.class);
+    when(rabbitTemplate.getMessageConverter()).thenReturn(new SimpleMessageConverter());
+    properties = new PublisherProperties();
+    properties.setMaxInFlight(2);
+    properties.setAcquireTimeout(Duration.ofMillis(10));
+    properties.setMaxAttempts(2);
+    publisher = new ReliablePublisher(rabbitTemplate, properties, Runnable::run);
+  }
+
+  @Test
+  void confirmCompletesFutureAndFreesWindow() {
+    CompletableFuture<Void> first = publisher.publish("ex", "rk", "a");
+    publisher.publish("ex", "rk", "b");
+    assertThrows(AmqpTimeoutException.class, () -> publisher.publish("ex", "rk", "c"));
+
+    publisher.onConfirm(sent(2).get(0), true, null);
+
+    assertTrue(first.isDone());
+    assertFalse(first.isCompletedExceptionally());
+    assertEquals(1, publisher.outstanding());
+    publisher.publish("ex", "rk", "c");
+  }
+
+  @Test
+  void republishesNackedAndReturnedUntilMaxAttempts() {
+    CompletableFuture<Void> result = publisher.publish("ex", "rk", "a");
+
+    publisher.onConfirm(sent(1).get(0), false, "nack");
+    assertFalse(result.isDone());
+
+    CorrelationData second = sent(2).get(1);
+    second.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()),
+        312, "NO_ROUTE", "ex", "rk"));
+    publisher.onConfirm(second, true, null);
+
+    assertTrue(result.isCompletedExceptionally());
+    assertEquals(0, publisher.outstanding());
+  }
+
+  @Test
+  void awaitConfirmReturnsOnlyAfterAck() {
+    properties.setConfirmTimeout(Duration.ofMillis(10));
+    MessageProperties headers = new MessageProperties();
+    headers.setHeader("x-retry-count", 1);
+    Message message = new Message("a".getBytes(), headers);
+
+    CompletableFuture<Void> pending = publisher.publishMessage("ex", "rk", message);
+    assertThrows(AmqpTimeoutException.class, () -> publisher.awaitConfirm(pending));
+
+    ArgumentCaptor<Message> forwarded = ArgumentCaptor.forClass(Message.class);
+    verify(rabbitTemplate).send(eq("ex"), eq("rk"), forwarded.capture(), any(CorrelationData.class));
+    assertEquals(1, (Integer) forwarded.getValue().getMessageProperties().getHeader("x-retry-count"));
+
+    publisher.onConfirm(sent(1).get(0), true, null);
+    publisher.awaitConfirm(pending);
+  }
+
+  @Test
+  void awaitConfirmThrowsWhenFinallyNacked() {
+    CompletableFuture<Void> result = publisher.publish("ex", "rk", "a");
+    publisher.onConfirm(sent(1).get(0), false, "nack");
+    publisher.onConfirm(sent(2).get(1), false, "nack");
+
+    assertThrows(AmqpException.class, () -> publisher.awaitConfirm(result));
+  }
+
+  @Test
+  void ignoresConfirmsForOtherSenders() {
+    publisher.onConfirm(null, true, null);
+    publisher.onConfirm(new CorrelationData("other"), false, "nack");
+    assertEquals(0, publisher.outstanding());
+  }
+
+  private List<CorrelationData> sent(int times) {
+    ArgumentCaptor<CorrelationData> captor = ArgumentCaptor.forClass(CorrelationData.class);
+    verify(rabbitTemplate, times(times)).send(eq("ex"), eq("rk"), any(Message.class), captor.capture());
+    return captor.getAllValues();
+  }
+}
@@ -0,0 +1,63 @@
+package com.demo.rabbitmq.timeout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+  @Test
+  void firesEachTimeoutWithinOneTickAcrossLevels() {
+    // 每格 10ms、8 格：第 0 层 80ms，第 1 层 640ms，更长的延迟落到第 2、3 层
+    HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 8, 1_000);
+    Random random = new Random(7);
+    int count = 10_000;
+    for (int i = 0; i < count; i++) {
+      long deadline = 1_010 + random.nextInt(50_000);
+      wheel.add(deadline, deadline);
+    }
+    assertEquals(count, wheel.size());
+
+    List<Long> late = new ArrayList<>();
+    int[] fired = {0};
+    for (long now = 1_000; now <= 52_000; now += 7) {
+      long current = now;
+      wheel.advance(now, deadline -> {
+        fired[0]++;
+        // 不早于到期时间，最多晚一格加一次推进的间隔
+        if (deadline > current || current - deadline >= 10 + 7) {
+          late.add(deadline);
+        }
+      });
+    }
+    assertEquals(count, fired[0]);
+    assertTrue(late.isEmpty(), "触发时间不对：" + late);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void cancelledTimeoutNeverFires() {
+    HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, 0);
+    HierarchicalTimingWheel.Timeout<String> cancelled = wheel.add(5_000, "cancelled");
+    wheel.add(5_000, "kept");
+    assertTrue(wheel.cancel(cancelled));
+
+    List<String> fired = new ArrayList<>();
+    wheel.advance(6_000, fired::add);
+    assertEquals(List.of("kept"), fired);
+  }
+
+  @Test
+  void expiredTimeoutIsRejected() {
+    HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, 1_000);
+    assertNull(wheel.add(1_000, "now"));
+    assertNull(wheel.add(900, "past"));
+    assertEquals(0, wheel.size());
+  }
+}
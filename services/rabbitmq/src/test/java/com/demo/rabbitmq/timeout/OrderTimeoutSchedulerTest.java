@@ -0,0 +1,88 @@
+package com.demo.rabbitmq.timeout;
+
+import com.demo.rabbitmq.properties.TimeoutSchedulerProperties;
+import com.demo.rabbitmq.publisher.ReliablePublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.AmqpException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderTimeoutSchedulerTest {
+
+  @TempDir
+  Path dir;
+
+  private ReliablePublisher publisher;
+  private TimeoutSchedulerProperties properties;
+  private OrderTimeoutScheduler scheduler;
+  private final CompletableFuture<Void> sent = new CompletableFuture<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    publisher = mock(ReliablePublisher.class);
+    when(publisher.publish(anyString(), anyString(), any())).thenReturn(sent);
+    properties = new TimeoutSchedulerProperties();
+    properties.setTick(Duration.ofMillis(5));
+    properties.setRetryDelay(Duration.ofMillis(20));
+    properties.setLogFile(dir.resolve("timeout.log").toString());
+    scheduler = new OrderTimeoutScheduler(publisher, properties);
+    scheduler.start();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    scheduler.stop();
+  }
+
+  @Test
+  void cancelWhileFiringStopsRetryAndIsLogged() throws Exception {
+    scheduler.schedule("A", Duration.ZERO);
+    verify(publisher, timeout(1000)).publish(anyString(), anyString(), any());
+
+    scheduler.cancel("A");
+    Thread.sleep(50);
+    sent.completeExceptionally(new AmqpException("nack"));
+
+    verify(publisher, after(200).times(1)).publish(anyString(), anyString(), any());
+    scheduler.stop();
+    Map<String, Long> recovered = new LinkedHashMap<>();
+    TimeoutLog.open(Path.of(properties.getLogFile()), false, recovered).close();
+    assertEquals(Map.of(), recovered);
+    scheduler.start();
+  }
+
+  @Test
+  void retryKeepsTimeoutRescheduledWhileFiring() throws Exception {
+    scheduler.schedule("A", Duration.ZERO);
+    verify(publisher, timeout(1000)).publish(anyString(), anyString(), any());
+
+    scheduler.schedule("A", Duration.ofHours(1));
+    Thread.sleep(50);
+    sent.completeExceptionally(new AmqpException("nack"));
+
+    verify(publisher, after(200).times(1)).publish(anyString(), anyString(), any());
+    scheduler.stop();
+    Map<String, Long> recovered = new LinkedHashMap<>();
+    TimeoutLog.open(Path.of(properties.getLogFile()), false, recovered).close();
+    assertEquals(1, recovered.size());
+    assertTrue(recovered.get("A") > System.currentTimeMillis() + Duration.ofMinutes(59).toMillis());
+    scheduler.start();
+  }
+}
@@ -0,0 +1,68 @@
+package com.demo.rabbitmq.timeout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeoutLogTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void replaysLiveTimeoutsAndDropsTornTail() throws Exception {
+    Path file = dir.resolve("timeout.log");
+    try (TimeoutLog log = TimeoutLog.open(file, false, new LinkedHashMap<>())) {
+      log.schedule("A", 100);
+      log.schedule("B", 200);
+      log.schedule("C", 300);
+      log.cancel("B");
+      log.fired("C");
+      log.schedule("A", 150);
+      log.flush();
+    }
+    // 模拟写了一半时崩溃
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+      raf.seek(raf.length());
+      raf.write(new byte[]{1, 0, 5, 'D'});
+    }
+
+    Map<String, Long> pending = new LinkedHashMap<>();
+    try (TimeoutLog log = TimeoutLog.open(file, false, pending)) {
+      assertEquals(Map.of("A", 150L), pending);
+      log.schedule("E", 500);
+      log.flush();
+    }
+
+    pending.clear();
+    try (TimeoutLog log = TimeoutLog.open(file, false, pending)) {
+      assertEquals(Map.of("A", 150L, "E", 500L), pending);
+    }
+  }
+
+  @Test
+  void compactKeepsOnlyPending() throws Exception {
+    Path file = dir.resolve("timeout.log");
+    try (TimeoutLog log = TimeoutLog.open(file, false, new LinkedHashMap<>())) {
+      for (int i = 0; i < 1_000; i++) {
+        log.schedule("O" + i, i);
+        log.fired("O" + i);
+      }
+      log.compact(Map.of("X", 42L));
+      assertEquals(1, log.records());
+      log.schedule("Y", 43);
+      log.flush();
+    }
+
+    Map<String, Long> pending = new LinkedHashMap<>();
+    try (TimeoutLog ignored = TimeoutLog.open(file, false, pending)) {
+      assertEquals(Map.of("X", 42L, "Y", 43L), pending);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.demo.account.bean;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * @TableName account_journal_tbl
+ */
+@Data
+public class AccountJournalTbl implements Serializable {
+
+  private Long id;
+
+  private String userId;
+
+  private Integer money;
+
+  private String xid;
+
+}
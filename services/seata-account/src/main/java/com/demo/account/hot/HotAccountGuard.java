@@ -0,0 +1,132 @@
+package com.demo.account.hot;
+
+import com.demo.account.properties.HotAccountProperties;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 热点账户的透支保护
+ * <p>
+ * 每个账户一个 hash 保存 available（余额 - 未汇总流水 - 未提交的预占），另一个 hash 保存还没有本地提交的预占。
+ * 扣款先在 Redis 预占，本地事务提交后结算、回滚后退回；全局事务回滚删除的流水由定时校准补回。
+ * 校准期间结算的金额单独累计，保证校准结果只会偏小，不会放出超过余额的扣款。
+ * 每次开始校准递增 generation，结束时只有 generation 未变才写入，并发的校准中先开始的那次被丢弃。
+ * 同一账户的 key 都带 {userId} hash tag，Lua 脚本在 Redis Cluster 下也落在同一个 slot。
+ */
+@Component
+@RequiredArgsConstructor
+public class HotAccountGuard {
+
+  /**
+   * 账户还没有加载到 Redis
+   */
+  public static final long NOT_LOADED = -1;
+
+  // KEYS: state, inflight；ARGV: token, money, now。返回 1 成功，0 余额不足，-1 未加载
+  private static final String RESERVE = """
+      local available = tonumber(redis.call('HGET', KEYS[1], 'available'))
+      if not available then return -1 end
+      local money = tonumber(ARGV[2])
+      if available < money then return 0 end
+      redis.call('HINCRBY', KEYS[1], 'available', -money)
+      redis.call('HSET', KEYS[2], ARGV[1], ARGV[2] .. ':' .. ARGV[3])
+      return 1
+      """;
+
+  // 本地事务已提交，扣款已经体现在流水里。KEYS: state, inflight；ARGV: token, money
+  private static final String SETTLE = """
+      if redis.call('HDEL', KEYS[2], ARGV[1]) == 0 then return 0 end
+      if redis.call('HGET', KEYS[1], 'resyncing') == '1' then
+        redis.call('HINCRBY', KEYS[1], 'settled', tonumber(ARGV[2]))
+      end
+      return 1
+      """;
+
+  // 本地事务回滚。KEYS: state, inflight；ARGV: token, money
+  private static final String RELEASE = """
+      if redis.call('HDEL', KEYS[2], ARGV[1]) == 0 then return 0 end
+      redis.call('HINCRBY', KEYS[1], 'available', tonumber(ARGV[2]))
+      return 1
+      """;
+
+  // KEYS: state。返回本次校准的 generation
+  private static final String RESYNC_BEGIN = """
+      redis.call('HSET', KEYS[1], 'resyncing', '1', 'settled', 0)
+      return redis.call('HINCRBY', KEYS[1], 'generation', 1)
+      """;
+
+  // KEYS: state, inflight；ARGV: generation, dbAvailable, now, timeout。丢弃超时的预占（所在进程已退出）
+  // 期间有更晚开始的校准时返回 0 不写入：它重置了 settled，本次读到的数据库余额可能已经偏大
+  private static final String RESYNC_END = """
+      if redis.call('HGET', KEYS[1], 'generation') ~= ARGV[1] then return 0 end
+      local available = tonumber(ARGV[2]) - tonumber(redis.call('HGET', KEYS[1], 'settled') or '0')
+      local entries = redis.call('HGETALL', KEYS[2])
+      local expireBefore = tonumber(ARGV[3]) - tonumber(ARGV[4])
+      for i = 1, #entries, 2 do
+        local value = entries[i + 1]
+        local split = string.find(value, ':')
+        if tonumber(string.sub(value, split + 1)) < expireBefore then
+          redis.call('HDEL', KEYS[2], entries[i])
+        else
+          available = available - tonumber(string.sub(value, 1, split - 1))
+        end
+      end
+      redis.call('HSET', KEYS[1], 'available', available, 'resyncing', '0', 'settled', 0)
+      return 1
+      """;
+
+  private final RedissonClient redissonClient;
+  private final HotAccountProperties properties;
+
+  public boolean isHot(String userId) {
+    return properties.getUserIds().contains(userId);
+  }
+
+  public long reserve(String userId, String token, int money) {
+    return eval(RESERVE, userId, token, money, System.currentTimeMillis());
+  }
+
+  public void settle(String userId, String token, int money) {
+    eval(SETTLE, userId, token, money);
+  }
+
+  public void release(String userId, String token, int money) {
+    eval(RELEASE, userId, token, money);
+  }
+
+  /**
+   * 开始校准，之后再读取数据库中的可用余额
+   *
+   * @return 本次校准的 generation，结束时传给 {@link #endResync}
+   */
+  public long beginResync(String userId) {
+    return eval(RESYNC_BEGIN, userId);
+  }
+
+  /**
+   * 用 {@link #beginResync} 之后读到的数据库可用余额重置 Redis
+   *
+   * @return 期间有更晚开始的校准时不写入，返回 false
+   */
+  public boolean endResync(String userId, long generation, int dbAvailable) {
+    return eval(RESYNC_END, userId, generation, dbAvailable, System.currentTimeMillis(),
+        properties.getReservationTimeout().toMillis()) == 1;
+  }
+
+  private long eval(String script, String userId, Object... args) {
+    Object[] values = new Object[args.length];
+    for (int i = 0; i < args.length; i++) {
+      values[i] = String.valueOf(args[i]);
+    }
+    String stateKey = properties.getKeyPrefix() + "{" + userId + "}";
+    Long result = redissonClient.getScript(StringCodec.INSTANCE)
+        .eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.INTEGER,
+            List.of(stateKey, stateKey + ":inflight"), values);
+    return result == null ? 0 : result;
+  }
+}
@@ -0,0 +1,23 @@
+package com.demo.account.mapper;
+
+import com.demo.account.bean.AccountJournalTbl;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+public interface AccountJournalTblMapper {
+
+  int insert(AccountJournalTbl record);
+
+  /**
+   * 可以汇总的流水：未汇总，且所属全局事务已经结束（不再有 undo log，之后不会被回滚删除）
+   */
+  List<AccountJournalTbl> selectFoldable(@Param("userId") String userId, @Param("limit") int limit);
+
+  int markFolded(@Param("ids") List<Long> ids);
+
+  /**
+   * 当前可用余额 = 账户余额 - 未汇总的流水（包括全局事务还未结束的）
+   */
+  Integer selectAvailable(@Param("userId") String userId);
+}
@@ -0,0 +1,37 @@
+package com.demo.account.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@ConfigurationProperties(prefix = "account.hot")
+@Data
+public class HotAccountProperties {
+
+  /**
+   * 热点账户（商户、大流量账户），扣款只写流水不更新余额行
+   */
+  Set<String> userIds = new HashSet<>();
+
+  String keyPrefix = "account:hot:";
+
+  /**
+   * 流水汇总到余额、以及用数据库校准 Redis 余额的间隔
+   */
+  Duration foldInterval = Duration.ofSeconds(1);
+
+  /**
+   * 每次汇总最多处理的流水条数
+   */
+  int foldBatchSize = 1000;
+
+  /**
+   * 预占超过这个时间还没有本地提交或回滚，视为进程已退出，校准时丢弃
+   */
+  Duration reservationTimeout = Duration.ofMinutes(2);
+}
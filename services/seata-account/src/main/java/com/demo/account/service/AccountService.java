@@ -8,4 +8,17 @@ public interface AccountService {
      * @param money   扣减金额
      */
     void debit(String userId, int money);
+
+    /**
+     * 把热点账户已经确定的扣款流水汇总到余额
+     * @param userId  用户id
+     * @return 汇总的流水条数
+     */
+    int fold(String userId);
+
+    /**
+     * 用数据库重新校准热点账户在 Redis 中的可用余额
+     * @param userId  用户id
+     */
+    void resync(String userId);
 }
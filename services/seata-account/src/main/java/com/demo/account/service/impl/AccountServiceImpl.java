@@ -1,21 +1,124 @@
 package com.demo.account.service.impl;
 
+import com.demo.account.bean.AccountJournalTbl;
+import com.demo.account.hot.HotAccountGuard;
+import com.demo.account.mapper.AccountJournalTblMapper;
 import com.demo.account.mapper.AccountTblMapper;
+import com.demo.account.properties.HotAccountProperties;
 import com.demo.account.service.AccountService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.seata.core.context.RootContext;
+import org.apache.seata.spring.annotation.GlobalLock;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
   private final AccountTblMapper accountTblMapper;
+  private final AccountJournalTblMapper accountJournalTblMapper;
+  private final HotAccountGuard hotAccountGuard;
+  private final HotAccountProperties hotAccountProperties;
 
   @Transactional  //本地事务
   @Override
   public void debit(String userId, int money) {
+    if (hotAccountGuard.isHot(userId) && debitHot(userId, money)) {
+      return;
+    }
     // 扣减账户余额
     accountTblMapper.debit(userId, money);
   }
+
+  /**
+   * 热点账户只插入流水，不锁余额行；余额检查由 Redis 预占完成
+   *
+   * @return Redis 不可用时返回 false，改为直接扣减余额
+   */
+  private boolean debitHot(String userId, int money) {
+    String token = UUID.randomUUID().toString();
+    long reserved;
+    try {
+      reserved = hotAccountGuard.reserve(userId, token, money);
+      if (reserved == HotAccountGuard.NOT_LOADED) {
+        resync(userId);
+        reserved = hotAccountGuard.reserve(userId, token, money);
+      }
+    } catch (RuntimeException e) {
+      log.warn("热点账户 {} 预占失败，直接扣减余额：{}", userId, e.getMessage());
+      return false;
+    }
+    if (reserved == HotAccountGuard.NOT_LOADED) {
+      // 本次校准被并发的校准取代，对方还没有写入
+      throw new IllegalStateException("热点账户 " + userId + " 正在加载，请稍后重试");
+    }
+    if (reserved != 1) {
+      throw new RuntimeException("账户余额不足");
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        try {
+          if (status == STATUS_COMMITTED) {
+            hotAccountGuard.settle(userId, token, money);
+          } else {
+            hotAccountGuard.release(userId, token, money);
+          }
+        } catch (Exception e) {
+          // 预占留在 Redis 中，超时后由校准清理
+          log.warn("热点账户 {} 预占 {} 结算失败：{}", userId, token, e.getMessage());
+        }
+      }
+    });
+    AccountJournalTbl journal = new AccountJournalTbl();
+    journal.setUserId(userId);
+    journal.setMoney(money);
+    journal.setXid(RootContext.getXID());
+    accountJournalTblMapper.insert(journal);
+    return true;
+  }
+
+  // 汇总时更新余额行，需要等待其他全局事务释放这一行的全局锁
+  @GlobalLock
+  @Transactional
+  @Override
+  public int fold(String userId) {
+    List<AccountJournalTbl> journals =
+        accountJournalTblMapper.selectFoldable(userId, hotAccountProperties.getFoldBatchSize());
+    if (journals.isEmpty()) {
+      return 0;
+    }
+    int total = 0;
+    List<Long> ids = new ArrayList<>(journals.size());
+    for (AccountJournalTbl journal : journals) {
+      total += journal.getMoney();
+      ids.add(journal.getId());
+    }
+    if (accountJournalTblMapper.markFolded(ids) != ids.size()) {
+      throw new IllegalStateException("账户 " + userId + " 的流水已被其他实例汇总");
+    }
+    accountTblMapper.debit(userId, total);
+    return journals.size();
+  }
+
+  @Override
+  public void resync(String userId) {
+    long generation = hotAccountGuard.beginResync(userId);
+    Integer available = accountJournalTblMapper.selectAvailable(userId);
+    if (available == null) {
+      throw new IllegalArgumentException("账户不存在：" + userId);
+    }
+    if (!hotAccountGuard.endResync(userId, generation, available)) {
+      log.info("热点账户 {} 的校准已被更晚开始的校准取代", userId);
+    }
+  }
 }
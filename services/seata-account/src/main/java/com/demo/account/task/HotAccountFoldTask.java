@@ -0,0 +1,54 @@
+package com.demo.account.task;
+
+import com.demo.account.properties.HotAccountProperties;
+import com.demo.account.service.AccountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时把热点账户的流水汇总到余额，并校准 Redis 中的可用余额；多个实例通过分布式锁只有一个在执行
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotAccountFoldTask {
+
+  private final AccountService accountService;
+  private final RedissonClient redissonClient;
+  private final HotAccountProperties hotAccountProperties;
+
+  @Scheduled(fixedDelayString = "${account.hot.fold-interval:1s}")
+  public void fold() {
+    if (hotAccountProperties.getUserIds().isEmpty()) {
+      return;
+    }
+    RLock lock = redissonClient.getLock(hotAccountProperties.getKeyPrefix() + "fold-lock");
+    if (!lock.tryLock()) {
+      return;
+    }
+    try {
+      for (String userId : hotAccountProperties.getUserIds()) {
+        fold(userId);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void fold(String userId) {
+    try {
+      int folded;
+      do {
+        folded = accountService.fold(userId);
+      } while (folded == hotAccountProperties.getFoldBatchSize());
+      // 全局事务回滚删掉的流水在这里补回可用余额
+      accountService.resync(userId);
+    } catch (Exception e) {
+      log.warn("热点账户 {} 汇总流水失败，下次重试：{}", userId, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.demo.account;
+
+import com.demo.account.mapper.AccountJournalTblMapper;
+import com.demo.account.mapper.AccountTblMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 基于内嵌 H2 的账户库，表结构与 doc/sql/seata-project-init.sql 一致
+ */
+public class H2AccountDatabase implements AutoCloseable {
+
+  private final HikariDataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final AccountTblMapper accountTblMapper;
+  private final AccountJournalTblMapper accountJournalTblMapper;
+
+  public H2AccountDatabase(String name) throws Exception {
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    dataSource.setMaximumPoolSize(4);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("drop table if exists account_tbl");
+    jdbcTemplate.execute("drop table if exists account_journal_tbl");
+    jdbcTemplate.execute("drop table if exists undo_log");
+    jdbcTemplate.execute("""
+        create table account_tbl
+        (
+            id      int generated by default as identity primary key,
+            user_id varchar(255),
+            money   int default 0
+        )""");
+    jdbcTemplate.execute("""
+        create table account_journal_tbl
+        (
+            id          bigint generated by default as identity primary key,
+            user_id     varchar(255) not null,
+            money       int not null,
+            xid         varchar(128),
+            folded      tinyint default 0 not null,
+            create_time timestamp default current_timestamp not null
+        )""");
+    jdbcTemplate.execute("create table undo_log (id bigint primary key, xid varchar(128) not null)");
+
+    SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+    factoryBean.setDataSource(dataSource);
+    factoryBean.setMapperLocations(
+        new ClassPathResource("mapper/AccountTblMapper.xml"),
+        new ClassPathResource("mapper/AccountJournalTblMapper.xml"));
+    SqlSessionTemplate sqlSession = new SqlSessionTemplate(factoryBean.getObject());
+    accountTblMapper = sqlSession.getMapper(AccountTblMapper.class);
+    accountJournalTblMapper = sqlSession.getMapper(AccountJournalTblMapper.class);
+    transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+  }
+
+  public void insertAccount(String userId, int money) {
+    jdbcTemplate.update("insert into account_tbl (user_id, money) values (?, ?)", userId, money);
+  }
+
+  public int balance(String userId) {
+    return jdbcTemplate.queryForObject("select money from account_tbl where user_id = ?", Integer.class, userId);
+  }
+
+  public AccountTblMapper accountTblMapper() {
+    return accountTblMapper;
+  }
+
+  public AccountJournalTblMapper accountJournalTblMapper() {
+    return accountJournalTblMapper;
+  }
+
+  /**
+   * 本地事务，扣款的预占在事务结束时结算或退回
+   */
+  public TransactionTemplate transactionTemplate() {
+    return transactionTemplate;
+  }
+
+  @Override
+  public void close() {
+    dataSource.close();
+  }
+}
@@ -0,0 +1,138 @@
+package com.demo.account;
+
+import com.demo.account.hot.HotAccountGuard;
+import com.demo.account.properties.HotAccountProperties;
+import com.demo.account.service.impl.AccountServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotAccountTest {
+
+  private static EmbeddedRedis redis;
+
+  private H2AccountDatabase database;
+  private HotAccountGuard guard;
+  private AccountServiceImpl accountService;
+
+  @BeforeAll
+  static void start() throws Exception {
+    redis = new EmbeddedRedis();
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    redis.close();
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    redis.client().getKeys().flushall();
+    database = new H2AccountDatabase("hot-account");
+    database.insertAccount("U1", 100);
+    HotAccountProperties properties = new HotAccountProperties();
+    properties.setUserIds(Set.of("U1"));
+    guard = new HotAccountGuard(redis.client(), properties);
+    accountService = new AccountServiceImpl(database.accountTblMapper(), database.accountJournalTblMapper(),
+        guard, properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.close();
+  }
+
+  @Test
+  void reserveSettleAndReleaseAreIdempotent() {
+    assertEquals(HotAccountGuard.NOT_LOADED, guard.reserve("U1", "t0", 1));
+    accountService.resync("U1");
+    assertEquals(100, available());
+
+    assertEquals(1, guard.reserve("U1", "t1", 30));
+    assertEquals(70, available());
+    guard.release("U1", "t1", 30);
+    guard.release("U1", "t1", 30);
+    assertEquals(100, available());
+
+    // 结算后扣款体现在流水里，可用余额不再变化
+    assertEquals(1, guard.reserve("U1", "t2", 30));
+    guard.settle("U1", "t2", 30);
+    guard.release("U1", "t2", 30);
+    assertEquals(70, available());
+    assertEquals(0, redis.client().getMap("account:hot:{U1}:inflight", StringCodec.INSTANCE).size());
+
+    assertEquals(0, guard.reserve("U1", "t3", 71));
+  }
+
+  @Test
+  void debitWritesJournalThatFoldsIntoBalance() {
+    debit(30);
+    assertEquals(70, available());
+    assertEquals(100, database.balance("U1"));
+
+    // 本地事务回滚退回预占，余额不足时不写流水
+    assertThrows(IllegalStateException.class, () -> database.transactionTemplate().executeWithoutResult(status -> {
+      accountService.debit("U1", 20);
+      throw new IllegalStateException("rollback");
+    }));
+    assertEquals(70, available());
+    assertThrows(RuntimeException.class, () -> debit(71));
+
+    assertEquals(1, accountService.fold("U1"));
+    assertEquals(0, accountService.fold("U1"));
+    assertEquals(70, database.balance("U1"));
+    accountService.resync("U1");
+    assertEquals(70, available());
+  }
+
+  @Test
+  void supersededResyncCannotOverstateAvailable() {
+    accountService.resync("U1");
+
+    // 校准 A 读到数据库可用余额 100
+    long first = guard.beginResync("U1");
+    int firstAvailable = database.accountJournalTblMapper().selectAvailable("U1");
+    // 扣款提交并结算，随后校准 B 开始（重置已结算金额）并完成
+    debit(30);
+    long second = guard.beginResync("U1");
+    assertTrue(guard.endResync("U1", second, database.accountJournalTblMapper().selectAvailable("U1")));
+    assertEquals(70, available());
+
+    // A 迟到的结果如果写入会变成 100
+    assertFalse(guard.endResync("U1", first, firstAvailable));
+    assertEquals(70, available());
+  }
+
+  @Test
+  void settleDuringResyncIsNotCountedTwice() {
+    accountService.resync("U1");
+    assertEquals(1, guard.reserve("U1", "t1", 30));
+
+    long generation = guard.beginResync("U1");
+    // 读数据库时预占还没有提交，之后提交并结算
+    int dbAvailable = database.accountJournalTblMapper().selectAvailable("U1");
+    guard.settle("U1", "t1", 30);
+    assertTrue(guard.endResync("U1", generation, dbAvailable));
+
+    assertEquals(70, available());
+  }
+
+  private void debit(int money) {
+    database.transactionTemplate().executeWithoutResult(status -> accountService.debit("U1", money));
+  }
+
+  private long available() {
+    return Long.parseLong(redis.client().<String, String>getMap("account:hot:{U1}", StringCodec.INSTANCE)
+        .get("available"));
+  }
+}
@@ -1,8 +1,10 @@
 package com.demo.business.controller;
 
+import com.demo.business.idempotent.IdempotentExecutor;
 import com.demo.business.service.BusinessService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -11,15 +13,19 @@ import org.springframework.web.bind.annotation.RestController;
 public class PurchaseRestController {
 
   private final BusinessService businessService;
+  private final IdempotentExecutor idempotentExecutor;
 
   /**
-   * 购买
+   * 购买；携带 X-Token 时，同一个 token 的重试直接返回第一次的结果，不会重复执行全局事务
    */
   @GetMapping("/purchase")
-  public String purchase(@RequestParam("userId") String userId,
+  public String purchase(@RequestHeader(value = "X-Token", required = false) String token,
+                         @RequestParam("userId") String userId,
                          @RequestParam("commodityCode") String commodityCode,
                          @RequestParam("count") int orderCount) {
-    businessService.purchase(userId, commodityCode, orderCount);
-    return "business purchase success";
+    return idempotentExecutor.execute(token, userId + ":" + commodityCode + ":" + orderCount, () -> {
+      businessService.purchase(userId, commodityCode, orderCount);
+      return "business purchase success";
+    });
   }
 }
@@ -0,0 +1,143 @@
+package com.demo.business.idempotent;
+
+import com.demo.business.properties.IdempotentProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * 按请求 token 去重：本地有界索引 + Redis
+ * <p>
+ * 本地索引命中时直接返回第一次的结果，同一实例上并发的重复请求等待同一次执行；
+ * 本地未命中时用 Redis SET NX 抢占 token，其他实例已经成功的直接返回结果，还在处理中的返回 409。
+ * 只缓存成功结果，失败后删除标记，客户端可以用同一个 token 重试。Redis 不可用时只按本地索引去重。
+ */
+@Slf4j
+@Component
+public class IdempotentExecutor {
+
+  private static final String PROCESSING = "PROCESSING";
+  private static final String DONE = "DONE";
+
+  private final RedissonClient redissonClient;
+  private final IdempotentProperties properties;
+  private final Cache<String, Entry> localIndex;
+
+  public IdempotentExecutor(RedissonClient redissonClient, IdempotentProperties properties) {
+    this.redissonClient = redissonClient;
+    this.properties = properties;
+    this.localIndex = Caffeine.newBuilder()
+        .maximumSize(properties.getLocalMaximumSize())
+        .expireAfterWrite(properties.getLocalExpireAfterWrite())
+        .build();
+  }
+
+  /**
+   * @param token   请求 token，为空时不去重
+   * @param request 请求参数摘要，同一个 token 携带不同参数时拒绝
+   * @param action  实际执行的操作
+   */
+  public String execute(String token, String request, Supplier<String> action) {
+    if (token == null || token.isBlank()) {
+      return action.get();
+    }
+    Entry created = new Entry(request, new CompletableFuture<>());
+    Entry existing = localIndex.asMap().putIfAbsent(token, created);
+    if (existing != null) {
+      checkRequest(existing.request(), request);
+      return await(existing.result());
+    }
+    try {
+      String result = executeOnce(token, request, action);
+      created.result().complete(result);
+      return result;
+    } catch (RuntimeException e) {
+      localIndex.asMap().remove(token, created);
+      created.result().completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private String executeOnce(String token, String request, Supplier<String> action) {
+    RBucket<String> bucket = redissonClient.getBucket(properties.getKeyPrefix() + token, StringCodec.INSTANCE);
+    boolean acquired;
+    try {
+      acquired = bucket.setIfAbsent(encode(PROCESSING, request, ""), properties.getProcessingTtl());
+    } catch (Exception e) {
+      log.warn("Redis 幂等标记不可用，只按本地索引去重：{}", e.getMessage());
+      return action.get();
+    }
+    if (!acquired) {
+      return previousResult(bucket, request);
+    }
+    String result;
+    try {
+      result = action.get();
+    } catch (RuntimeException e) {
+      try {
+        bucket.delete();
+      } catch (Exception ex) {
+        log.warn("删除幂等标记失败，到期后才能重试：{}，{}", token, ex.getMessage());
+      }
+      throw e;
+    }
+    try {
+      bucket.set(encode(DONE, request, result), properties.getResultTtl());
+    } catch (Exception e) {
+      log.warn("保存幂等结果失败：{}，{}", token, e.getMessage());
+    }
+    return result;
+  }
+
+  private String previousResult(RBucket<String> bucket, String request) {
+    String value = bucket.get();
+    if (value == null) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "请求正在处理中，请稍后重试");
+    }
+    int stateEnd = value.indexOf(':');
+    int lengthEnd = value.indexOf(':', stateEnd + 1);
+    int requestEnd = lengthEnd + 1 + Integer.parseInt(value.substring(stateEnd + 1, lengthEnd));
+    checkRequest(value.substring(lengthEnd + 1, requestEnd), request);
+    if (!DONE.equals(value.substring(0, stateEnd))) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "请求正在处理中，请稍后重试");
+    }
+    return value.substring(requestEnd);
+  }
+
+  /**
+   * 格式：state:请求长度:request result，请求按长度截取，请求和结果里可以有任意字符
+   */
+  private static String encode(String state, String request, String result) {
+    return state + ':' + request.length() + ':' + request + result;
+  }
+
+  private static void checkRequest(String previous, String request) {
+    if (!previous.equals(request)) {
+      throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "X-Token 已用于其他请求");
+    }
+  }
+
+  private static String await(CompletableFuture<String> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private record Entry(String request, CompletableFuture<String> result) {
+  }
+}
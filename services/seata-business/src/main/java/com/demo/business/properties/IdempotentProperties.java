@@ -0,0 +1,36 @@
+package com.demo.business.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "business.idempotent")
+@Data
+public class IdempotentProperties {
+
+  String keyPrefix = "purchase:idempotent:";
+
+  /**
+   * 本地索引最多保存的请求数量，超出后按最近使用淘汰，淘汰的请求再查 Redis
+   */
+  long localMaximumSize = 100_000;
+
+  /**
+   * 本地索引保存时间
+   */
+  Duration localExpireAfterWrite = Duration.ofMinutes(10);
+
+  /**
+   * 请求处理中的标记保存时间，必须大于全局事务超时时间（Seata 默认 60s），否则慢请求的标记先过期，重试会再执行一次；
+   * 进程退出时标记到期后才能重试
+   */
+  Duration processingTtl = Duration.ofMinutes(2);
+
+  /**
+   * 成功结果在 Redis 中的保存时间，即客户端可以重试的时间窗口
+   */
+  Duration resultTtl = Duration.ofHours(1);
+}
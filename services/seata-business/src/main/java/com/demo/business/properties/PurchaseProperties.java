@@ -0,0 +1,16 @@
+package com.demo.business.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "business.purchase")
+@Data
+public class PurchaseProperties {
+
+  /**
+   * 扣库存与创建订单并行执行，耗时取决于最慢的分支；会改变分支的执行顺序和失败时的表现，默认关闭
+   */
+  boolean parallel = false;
+}
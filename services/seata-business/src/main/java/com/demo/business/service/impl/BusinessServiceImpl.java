@@ -2,21 +2,32 @@ package com.demo.business.service.impl;
 
 import com.demo.business.feign.OrderFeignClient;
 import com.demo.business.feign.StorageFeignClient;
+import com.demo.business.properties.PurchaseProperties;
 import com.demo.business.service.BusinessService;
+import com.demo.seata.BranchExecutor;
 import lombok.RequiredArgsConstructor;
 import org.apache.seata.spring.annotation.GlobalTransactional;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
 @RequiredArgsConstructor
 public class BusinessServiceImpl implements BusinessService {
 
   private final StorageFeignClient storageFeignClient;
   private final OrderFeignClient orderFeignClient;
+  private final PurchaseProperties purchaseProperties;
+  private final BranchExecutor branchExecutor;
 
   @GlobalTransactional
   @Override
   public void purchase(String userId, String commodityCode, int orderCount) {
+    if (purchaseProperties.isParallel()) {
+      purchaseInParallel(userId, commodityCode, orderCount);
+      return;
+    }
     //1. 扣减库存
     storageFeignClient.deduct(commodityCode, orderCount);
 
@@ -24,4 +35,28 @@ public class BusinessServiceImpl implements BusinessService {
     orderFeignClient.create(userId, commodityCode, orderCount);
   }
 
+  /**
+   * 扣库存和创建订单互不依赖，同时发起；任一分支失败都抛出异常，由 @GlobalTransactional 回滚全部分支
+   */
+  private void purchaseInParallel(String userId, String commodityCode, int orderCount) {
+    CompletableFuture<String> deduct = branchExecutor.supplyAsync(
+        () -> storageFeignClient.deduct(commodityCode, orderCount));
+    CompletableFuture<String> create = branchExecutor.supplyAsync(
+        () -> orderFeignClient.create(userId, commodityCode, orderCount));
+    awaitAll(deduct, create);
+  }
+
+  /**
+   * 等所有分支都结束再返回或抛异常，避免全局事务开始回滚时还有分支在注册
+   */
+  private static void awaitAll(CompletableFuture<?>... branches) {
+    try {
+      CompletableFuture.allOf(branches).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
 }
@@ -0,0 +1,97 @@
+package com.demo.business;
+
+import com.demo.business.idempotent.IdempotentExecutor;
+import com.demo.business.properties.IdempotentProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotentExecutorTest {
+
+  private static EmbeddedRedis redis;
+
+  // 共用同一个 Redis 的两个实例
+  private IdempotentExecutor instanceA;
+  private IdempotentExecutor instanceB;
+
+  @BeforeAll
+  static void start() throws Exception {
+    redis = new EmbeddedRedis();
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    redis.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    redis.client().getKeys().flushall();
+    instanceA = new IdempotentExecutor(redis.client(), new IdempotentProperties());
+    instanceB = new IdempotentExecutor(redis.client(), new IdempotentProperties());
+  }
+
+  @Test
+  void retryOnAnyInstanceReturnsFirstResult() {
+    AtomicInteger executions = new AtomicInteger();
+    // 请求和结果中带分隔符也能原样还原
+    String request = "user:1\ncommodity:P0001\n2";
+    String result = "ok\nline2:" + executions;
+
+    assertEquals(result, instanceA.execute("t1", request, () -> {
+      executions.incrementAndGet();
+      return result;
+    }));
+    assertEquals(result, instanceA.execute("t1", request, executions::toString));
+    assertEquals(result, instanceB.execute("t1", request, executions::toString));
+    assertEquals(1, executions.get());
+
+    ResponseStatusException mismatch = assertThrows(ResponseStatusException.class,
+        () -> instanceB.execute("t1", "user:1\ncommodity:P0001\n3", executions::toString));
+    assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, mismatch.getStatusCode());
+  }
+
+  @Test
+  void inFlightOnAnotherInstanceIsConflict() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> instanceA.execute("t2", "req", () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "done";
+    }));
+    started.await();
+
+    ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+        () -> instanceB.execute("t2", "req", () -> "again"));
+    assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+
+    release.countDown();
+    assertEquals("done", first.get());
+    assertEquals("done", instanceB.execute("t2", "req", () -> "again"));
+  }
+
+  @Test
+  void failureReleasesTokenForRetry() {
+    assertThrows(IllegalStateException.class, () -> instanceA.execute("t3", "req", () -> {
+      throw new IllegalStateException("库存不足");
+    }));
+
+    assertEquals("retried", instanceB.execute("t3", "req", () -> "retried"));
+    assertEquals("retried", instanceA.execute("t3", "req", () -> "third"));
+  }
+}
@@ -0,0 +1,56 @@
+package com.demo.order.pricing;
+
+import com.alibaba.cloud.nacos.NacosConfigManager;
+import com.alibaba.nacos.api.config.listener.AbstractListener;
+import com.demo.order.properties.PricingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 启动时从 Nacos 读取价格表并监听变化，变化后推送给计价引擎
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NacosPriceTableSource implements ApplicationRunner {
+
+  private static final long TIMEOUT_MILLIS = 3000;
+
+  private final NacosConfigManager nacosConfigManager;
+  private final PricingEngine pricingEngine;
+  private final PricingProperties pricingProperties;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    try {
+      String content = nacosConfigManager.getConfigService().getConfigAndSignListener(
+          pricingProperties.getDataId(), pricingProperties.getGroup(), TIMEOUT_MILLIS, new AbstractListener() {
+            @Override
+            public void receiveConfigInfo(String configInfo) {
+              load(configInfo);
+            }
+          });
+      load(content);
+    } catch (Exception e) {
+      log.warn("读取价格表失败，使用默认单价 {}：{}", pricingProperties.getDefaultPrice(), e.getMessage());
+    }
+  }
+
+  private void load(String content) {
+    if (!StringUtils.hasText(content)) {
+      return;
+    }
+    try {
+      pricingEngine.publish(objectMapper.readValue(content, PriceTableConfig.class));
+    } catch (Exception e) {
+      // 解析失败时保留旧快照
+      log.error("价格表解析失败，继续使用版本 {}", pricingEngine.version(), e);
+    }
+  }
+}
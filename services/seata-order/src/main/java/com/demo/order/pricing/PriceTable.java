@@ -0,0 +1,187 @@
+package com.demo.order.pricing;
+
+import com.demo.order.pricing.PriceTableConfig.CommodityPrice;
+import com.demo.order.pricing.PriceTableConfig.Promotion;
+import com.demo.order.pricing.PriceTableConfig.Tier;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 不可变的价格表快照
+ * <p>
+ * 商品编码用开放寻址表定位（String 的 hashCode 自带缓存），规则全部展开到基本类型数组里，
+ * 计价过程只做数组访问和整数运算，不创建任何对象。
+ * 构造时校验规则，价格、阶梯和促销不合法（例如折扣超过 100%）时抛出 IllegalArgumentException，发布方保留旧快照。
+ */
+public final class PriceTable {
+
+  private static final byte NO_PROMOTION = 0;
+  private static final byte PERCENT_OFF = 1;
+  private static final byte AMOUNT_OFF = 2;
+
+  private final long version;
+  private final int defaultPrice;
+  private final int mask;
+  private final String[] codes;
+  private final int[] basePrice;
+  // 第 i 个槽位的阶梯价是 tierMinCount/tierPrice[tierFrom[i], tierTo[i])，按 minCount 从大到小排列
+  private final int[] tierFrom;
+  private final int[] tierTo;
+  private final int[] tierMinCount;
+  private final int[] tierPrice;
+  private final byte[] promotionType;
+  private final int[] promotionThreshold;
+  private final int[] promotionValue;
+  private final long[] promotionStart;
+  private final long[] promotionEnd;
+
+  private PriceTable(PriceTableConfig config) {
+    List<CommodityPrice> commodities = config.commodities() == null ? List.of() : config.commodities();
+    int capacity = Integer.highestOneBit(Math.max(2, commodities.size() * 2 - 1)) << 1;
+    int tierCount = commodities.stream().mapToInt(c -> c.tiers() == null ? 0 : c.tiers().size()).sum();
+    this.version = config.version();
+    this.defaultPrice = requireNonNegative(config.defaultPrice(), "默认单价");
+    this.mask = capacity - 1;
+    this.codes = new String[capacity];
+    this.basePrice = new int[capacity];
+    this.tierFrom = new int[capacity];
+    this.tierTo = new int[capacity];
+    this.tierMinCount = new int[tierCount];
+    this.tierPrice = new int[tierCount];
+    this.promotionType = new byte[capacity];
+    this.promotionThreshold = new int[capacity];
+    this.promotionValue = new int[capacity];
+    this.promotionStart = new long[capacity];
+    this.promotionEnd = new long[capacity];
+
+    int nextTier = 0;
+    for (CommodityPrice commodity : commodities) {
+      if (commodity.code() == null) {
+        throw new IllegalArgumentException("商品编码不能为空");
+      }
+      int slot = insertSlot(commodity.code());
+      codes[slot] = commodity.code();
+      basePrice[slot] = requireNonNegative(commodity.price(), commodity.code() + " 的单价");
+      tierFrom[slot] = nextTier;
+      if (commodity.tiers() != null) {
+        List<Tier> tiers = commodity.tiers().stream()
+            .sorted(Comparator.comparingInt(Tier::minCount).reversed())
+            .toList();
+        for (Tier tier : tiers) {
+          if (tier.minCount() < 1) {
+            throw new IllegalArgumentException(commodity.code() + " 的阶梯起始数量必须大于 0：" + tier.minCount());
+          }
+          tierMinCount[nextTier] = tier.minCount();
+          tierPrice[nextTier] = requireNonNegative(tier.price(), commodity.code() + " 的阶梯价");
+          nextTier++;
+        }
+      }
+      tierTo[slot] = nextTier;
+      Promotion promotion = commodity.promotion();
+      if (promotion != null) {
+        validate(commodity.code(), promotion);
+        promotionType[slot] = switch (promotion.type()) {
+          case PERCENT_OFF -> PERCENT_OFF;
+          case AMOUNT_OFF -> AMOUNT_OFF;
+        };
+        promotionThreshold[slot] = promotion.threshold();
+        promotionValue[slot] = promotion.value();
+        promotionStart[slot] = promotion.start() == null ? Long.MIN_VALUE : promotion.start().toInstant().toEpochMilli();
+        promotionEnd[slot] = promotion.end() == null ? Long.MAX_VALUE : promotion.end().toInstant().toEpochMilli();
+      }
+    }
+  }
+
+  public static PriceTable of(PriceTableConfig config) {
+    return new PriceTable(config);
+  }
+
+  /**
+   * 只有默认单价的价格表
+   */
+  public static PriceTable fixed(int defaultPrice) {
+    return new PriceTable(new PriceTableConfig(0, defaultPrice, List.of()));
+  }
+
+  public long version() {
+    return version;
+  }
+
+  /**
+   * 计算订单金额
+   *
+   * @param nowMillis 当前时间，用于判断促销是否生效
+   */
+  public long price(String commodityCode, int count, long nowMillis) {
+    int slot = slot(commodityCode);
+    if (slot < 0) {
+      return (long) defaultPrice * count;
+    }
+    int unitPrice = basePrice[slot];
+    for (int i = tierFrom[slot], end = tierTo[slot]; i < end; i++) {
+      if (count >= tierMinCount[i]) {
+        unitPrice = tierPrice[i];
+        break;
+      }
+    }
+    long total = (long) unitPrice * count;
+    byte type = promotionType[slot];
+    if (type == NO_PROMOTION || total < promotionThreshold[slot]
+        || nowMillis < promotionStart[slot] || nowMillis >= promotionEnd[slot]) {
+      return total;
+    }
+    if (type == PERCENT_OFF) {
+      return total * (100 - promotionValue[slot]) / 100;
+    }
+    return Math.max(0, total - promotionValue[slot]);
+  }
+
+  private static void validate(String code, Promotion promotion) {
+    if (promotion.type() == null) {
+      throw new IllegalArgumentException(code + " 的促销类型不能为空");
+    }
+    requireNonNegative(promotion.threshold(), code + " 的促销门槛");
+    requireNonNegative(promotion.value(), code + " 的促销力度");
+    if (promotion.type() == PriceTableConfig.PromotionType.PERCENT_OFF && promotion.value() > 100) {
+      throw new IllegalArgumentException(code + " 的折扣不能超过 100%：" + promotion.value());
+    }
+    if (promotion.start() != null && promotion.end() != null && !promotion.start().isBefore(promotion.end())) {
+      throw new IllegalArgumentException(code + " 的促销开始时间必须早于结束时间");
+    }
+  }
+
+  private static int requireNonNegative(int value, String name) {
+    if (value < 0) {
+      throw new IllegalArgumentException(name + "不能为负数：" + value);
+    }
+    return value;
+  }
+
+  private int slot(String code) {
+    for (int i = spread(code.hashCode()) & mask; ; i = (i + 1) & mask) {
+      String candidate = codes[i];
+      if (candidate == null) {
+        return -1;
+      }
+      if (candidate.equals(code)) {
+        return i;
+      }
+    }
+  }
+
+  private int insertSlot(String code) {
+    for (int i = spread(code.hashCode()) & mask; ; i = (i + 1) & mask) {
+      if (codes[i] == null) {
+        return i;
+      }
+      if (codes[i].equals(code)) {
+        throw new IllegalArgumentException("商品编码重复：" + code);
+      }
+    }
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
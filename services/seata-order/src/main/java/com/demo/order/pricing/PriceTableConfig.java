@@ -0,0 +1,50 @@
+package com.demo.order.pricing;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * 价格表的配置格式（Nacos 中的 JSON），加载后编译成 {@link PriceTable}
+ * <pre>
+ * {
+ *   "version": 2,
+ *   "defaultPrice": 9,
+ *   "commodities": [
+ *     {"code": "P0001", "price": 9, "tiers": [{"minCount": 10, "price": 8}],
+ *      "promotion": {"type": "AMOUNT_OFF", "threshold": 100, "value": 20,
+ *                    "start": "2026-11-11T00:00:00+08:00", "end": "2026-11-12T00:00:00+08:00"}}
+ *   ]
+ * }
+ * </pre>
+ *
+ * @param version      版本号，只接受比当前更新的版本
+ * @param defaultPrice 价格表中没有的商品使用的单价
+ * @param commodities  商品价格
+ */
+public record PriceTableConfig(long version, int defaultPrice, List<CommodityPrice> commodities) {
+
+  /**
+   * @param price     基础单价
+   * @param tiers     阶梯价，购买数量达到 minCount 时使用对应单价
+   * @param promotion 促销，可为空
+   */
+  public record CommodityPrice(String code, int price, List<Tier> tiers, Promotion promotion) {
+  }
+
+  public record Tier(int minCount, int price) {
+  }
+
+  /**
+   * @param threshold 订单金额达到门槛才生效，0 表示无门槛
+   * @param value     PERCENT_OFF 时为折扣百分比，AMOUNT_OFF 时为减免金额
+   * @param start     生效时间，为空表示立即生效
+   * @param end       结束时间，为空表示长期有效
+   */
+  public record Promotion(PromotionType type, int threshold, int value, OffsetDateTime start, OffsetDateTime end) {
+  }
+
+  public enum PromotionType {
+    PERCENT_OFF,
+    AMOUNT_OFF
+  }
+}
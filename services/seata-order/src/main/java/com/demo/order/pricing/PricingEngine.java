@@ -0,0 +1,42 @@
+package com.demo.order.pricing;
+
+import com.demo.order.properties.PricingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 计价引擎：读路径只读一次 volatile 引用，价格表变化时整体替换快照
+ */
+@Slf4j
+@Component
+public class PricingEngine {
+
+  private volatile PriceTable table;
+
+  public PricingEngine(PricingProperties properties) {
+    this.table = PriceTable.fixed(properties.getDefaultPrice());
+  }
+
+  public int calculate(String commodityCode, int orderCount) {
+    return Math.toIntExact(table.price(commodityCode, orderCount, System.currentTimeMillis()));
+  }
+
+  /**
+   * 发布新的价格表，版本不比当前新时忽略（配置推送可能乱序或重复）
+   */
+  public synchronized boolean publish(PriceTableConfig config) {
+    PriceTable current = table;
+    if (config.version() <= current.version()) {
+      log.info("忽略价格表版本 {}，当前版本 {}", config.version(), current.version());
+      return false;
+    }
+    table = PriceTable.of(config);
+    log.info("价格表已切换到版本 {}，商品数 {}", config.version(),
+        config.commodities() == null ? 0 : config.commodities().size());
+    return true;
+  }
+
+  public long version() {
+    return table.version();
+  }
+}
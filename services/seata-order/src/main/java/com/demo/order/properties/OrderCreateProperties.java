@@ -0,0 +1,16 @@
+package com.demo.order.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "order.create")
+@Data
+public class OrderCreateProperties {
+
+  /**
+   * 扣减账户余额与保存订单并行执行；会改变分支的执行顺序和失败时的表现，默认关闭
+   */
+  boolean parallelDebit = false;
+}
@@ -0,0 +1,23 @@
+package com.demo.order.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "order.pricing")
+@Data
+public class PricingProperties {
+
+  /**
+   * 没有价格表时的单价
+   */
+  int defaultPrice = 9;
+
+  /**
+   * Nacos 中价格表（JSON）的 dataId 与分组
+   */
+  String dataId = "order-price-table.json";
+
+  String group = "order";
+}
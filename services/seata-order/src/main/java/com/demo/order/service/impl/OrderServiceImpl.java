@@ -3,25 +3,36 @@ package com.demo.order.service.impl;
 import com.demo.order.bean.OrderTbl;
 import com.demo.order.feign.AccountFeignClient;
 import com.demo.order.mapper.OrderTblMapper;
+import com.demo.order.pricing.PricingEngine;
+import com.demo.order.properties.OrderCreateProperties;
 import com.demo.order.service.OrderService;
+import com.demo.seata.BranchExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
   private final OrderTblMapper orderTblMapper;
   private final AccountFeignClient accountFeignClient;
+  private final OrderCreateProperties orderCreateProperties;
+  private final BranchExecutor branchExecutor;
+  private final PricingEngine pricingEngine;
 
   @Transactional
   @Override
   public OrderTbl create(String userId, String commodityCode, int orderCount) {
     // 1、计算订单价格
     int orderMoney = calculate(commodityCode, orderCount);
-    // 2、扣减账户余额
-    accountFeignClient.debit(userId, orderMoney);
+    // 2、扣减账户余额，并行模式下与保存订单同时进行
+    CompletableFuture<String> debit = orderCreateProperties.isParallelDebit()
+        ? branchExecutor.supplyAsync(() -> accountFeignClient.debit(userId, orderMoney))
+        : CompletableFuture.completedFuture(accountFeignClient.debit(userId, orderMoney));
     // 3、保存订单
     OrderTbl orderTbl = new OrderTbl();
     orderTbl.setUserId(userId);
@@ -29,13 +40,35 @@ public class OrderServiceImpl implements OrderService {
     orderTbl.setCount(orderCount);
     orderTbl.setMoney(orderMoney);
     //3、保存订单
-    orderTblMapper.insert(orderTbl);
-
+    try {
+      orderTblMapper.insert(orderTbl);
+    } catch (RuntimeException e) {
+      // 保存失败也要等扣款分支结束，它已经注册到全局事务里，随全局事务一起回滚；
+      // 抛出的仍是保存订单的异常，扣款的异常附在后面
+      try {
+        awaitDebit(debit);
+      } catch (RuntimeException debitFailure) {
+        e.addSuppressed(debitFailure);
+      }
+      throw e;
+    }
+    awaitDebit(debit);
     return orderTbl;
   }
 
+  private static void awaitDebit(CompletableFuture<String> debit) {
+    try {
+      debit.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
   // 计算价格
   private int calculate(String commodityCode, int orderCount) {
-    return 9 * orderCount;
+    return pricingEngine.calculate(commodityCode, orderCount);
   }
 }
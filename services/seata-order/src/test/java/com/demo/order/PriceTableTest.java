@@ -0,0 +1,105 @@
+package com.demo.order;
+
+import com.demo.order.pricing.PriceTable;
+import com.demo.order.pricing.PriceTableConfig;
+import com.demo.order.pricing.PriceTableConfig.CommodityPrice;
+import com.demo.order.pricing.PriceTableConfig.Promotion;
+import com.demo.order.pricing.PriceTableConfig.PromotionType;
+import com.demo.order.pricing.PriceTableConfig.Tier;
+import com.demo.order.pricing.PricingEngine;
+import com.demo.order.properties.PricingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceTableTest {
+
+  private static final OffsetDateTime START = OffsetDateTime.of(2026, 11, 11, 0, 0, 0, 0, ZoneOffset.ofHours(8));
+  private static final long BEFORE = START.minusDays(1).toInstant().toEpochMilli();
+  private static final long DURING = START.plusHours(1).toInstant().toEpochMilli();
+
+  private final PriceTable table = PriceTable.of(new PriceTableConfig(1, 9, List.of(
+      new CommodityPrice("P0001", 10, List.of(new Tier(10, 8), new Tier(100, 7)), null),
+      new CommodityPrice("B1234", 50, null,
+          new Promotion(PromotionType.PERCENT_OFF, 0, 20, START, START.plusDays(1))),
+      new CommodityPrice("C0001", 30, null,
+          new Promotion(PromotionType.AMOUNT_OFF, 100, 25, null, null)))));
+
+  @Test
+  void unknownCommodityUsesDefaultPrice() {
+    assertEquals(27, table.price("UNKNOWN", 3, DURING));
+  }
+
+  @Test
+  void tierPriceDependsOnCount() {
+    assertEquals(90, table.price("P0001", 9, DURING));
+    assertEquals(80, table.price("P0001", 10, DURING));
+    assertEquals(700, table.price("P0001", 100, DURING));
+  }
+
+  @Test
+  void promotionOnlyAppliesInsideWindow() {
+    assertEquals(100, table.price("B1234", 2, BEFORE));
+    assertEquals(80, table.price("B1234", 2, DURING));
+  }
+
+  @Test
+  void amountOffNeedsThreshold() {
+    assertEquals(90, table.price("C0001", 3, DURING));
+    assertEquals(95, table.price("C0001", 4, DURING));
+  }
+
+  @Test
+  void duplicateCodeIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> PriceTable.of(new PriceTableConfig(1, 9, List.of(
+        new CommodityPrice("P0001", 1, null, null), new CommodityPrice("P0001", 2, null, null)))));
+  }
+
+  @Test
+  void invalidRulesAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> PriceTable.of(new PriceTableConfig(1, -1, List.of())));
+    assertThrows(IllegalArgumentException.class, () -> table(new CommodityPrice("P0001", -5, null, null)));
+    assertThrows(IllegalArgumentException.class,
+        () -> table(new CommodityPrice("P0001", 5, List.of(new Tier(10, -1)), null)));
+    assertThrows(IllegalArgumentException.class,
+        () -> table(new CommodityPrice("P0001", 5, List.of(new Tier(0, 4)), null)));
+    assertThrows(IllegalArgumentException.class, () -> table(new CommodityPrice("P0001", 5, null,
+        new Promotion(PromotionType.PERCENT_OFF, 0, 120, null, null))));
+    assertThrows(IllegalArgumentException.class, () -> table(new CommodityPrice("P0001", 5, null,
+        new Promotion(PromotionType.AMOUNT_OFF, 0, -10, null, null))));
+    assertThrows(IllegalArgumentException.class, () -> table(new CommodityPrice("P0001", 5, null,
+        new Promotion(PromotionType.AMOUNT_OFF, 0, 1, START, START))));
+  }
+
+  @Test
+  void invalidTableKeepsCurrentSnapshot() {
+    PricingEngine engine = new PricingEngine(new PricingProperties());
+    assertTrue(engine.publish(new PriceTableConfig(2, 9, List.of(new CommodityPrice("P0001", 5, null, null)))));
+
+    assertThrows(IllegalArgumentException.class, () -> engine.publish(new PriceTableConfig(3, 9, List.of(
+        new CommodityPrice("P0001", 5, null, new Promotion(PromotionType.PERCENT_OFF, 0, 150, null, null))))));
+
+    assertEquals(2, engine.version());
+    assertEquals(10, engine.calculate("P0001", 2));
+  }
+
+  @Test
+  void engineOnlyAcceptsNewerVersions() {
+    PricingEngine engine = new PricingEngine(new PricingProperties());
+    assertEquals(18, engine.calculate("P0001", 2));
+    assertTrue(engine.publish(new PriceTableConfig(2, 9, List.of(new CommodityPrice("P0001", 5, null, null)))));
+    assertFalse(engine.publish(new PriceTableConfig(1, 9, List.of())));
+    assertEquals(10, engine.calculate("P0001", 2));
+  }
+
+  private static PriceTable table(CommodityPrice commodity) {
+    return PriceTable.of(new PriceTableConfig(1, 9, List.of(commodity)));
+  }
+}
@@ -0,0 +1,79 @@
+package com.demo.order.benchmark;
+
+import com.demo.order.pricing.PriceTable;
+import com.demo.order.pricing.PriceTableConfig;
+import com.demo.order.pricing.PriceTableConfig.CommodityPrice;
+import com.demo.order.pricing.PriceTableConfig.Promotion;
+import com.demo.order.pricing.PriceTableConfig.PromotionType;
+import com.demo.order.pricing.PriceTableConfig.Tier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 计价吞吐，加 -prof gc 可以确认每次计价的分配为 0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class PricingBenchmark {
+
+  @Param({"100", "100000"})
+  public int commodities;
+
+  private PriceTable table;
+  private String[] codes;
+  private int[] counts;
+  private int next;
+  private long now;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    List<CommodityPrice> prices = new ArrayList<>(commodities);
+    OffsetDateTime start = OffsetDateTime.now().minusDays(1);
+    for (int i = 0; i < commodities; i++) {
+      // 一半商品有阶梯价，三分之一有促销
+      List<Tier> tiers = i % 2 == 0 ? List.of(new Tier(10, 90), new Tier(100, 80)) : null;
+      Promotion promotion = i % 3 == 0
+          ? new Promotion(i % 2 == 0 ? PromotionType.PERCENT_OFF : PromotionType.AMOUNT_OFF, 200, 10,
+          start, start.plusDays(7))
+          : null;
+      prices.add(new CommodityPrice("P" + i, 100, tiers, promotion));
+    }
+    table = PriceTable.of(new PriceTableConfig(1, 9, prices));
+    codes = new String[1024];
+    counts = new int[1024];
+    for (int i = 0; i < codes.length; i++) {
+      // 编码在请求里是新字符串，hashCode 在第一次计价时计算并缓存
+      codes[i] = new String("P" + random.nextInt(commodities));
+      counts[i] = 1 + random.nextInt(150);
+    }
+    now = System.currentTimeMillis();
+  }
+
+  @Benchmark
+  public long price() {
+    int i = next++ & 1023;
+    return table.price(codes[i], counts[i], now);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+        .include(PricingBenchmark.class.getSimpleName())
+        .warmupIterations(2)
+        .measurementIterations(3)
+        .forks(1)
+        .build()).run();
+  }
+}
@@ -0,0 +1,25 @@
+package com.demo.storage.bean;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * 分片库存，一个商品的库存拆分到多个 bucket 行
+ *
+ * @TableName storage_bucket_tbl
+ */
+@Data
+public class StorageBucketTbl implements Serializable {
+  private Integer id;
+
+  private String commodityCode;
+
+  private Integer bucketNo;
+
+  private Integer count;
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+}
@@ -16,6 +16,16 @@ public class StorageTbl implements Serializable {
 
   private Integer count;
 
+  /**
+   * 已落库的最大预扣序号
+   */
+  private Long predeductSeq;
+
+  /**
+   * 库存分片数，0 表示库存仍在 storage_tbl
+   */
+  private Integer shards;
+
   @Serial
   private static final long serialVersionUID = 1L;
 }
\ No newline at end of file
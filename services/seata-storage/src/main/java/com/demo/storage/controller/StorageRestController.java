@@ -3,6 +3,7 @@ package com.demo.storage.controller;
 import com.demo.storage.service.StorageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,4 +20,17 @@ public class StorageRestController {
     storageService.deduct(commodityCode, count);
     return "storage deduct success";
   }
+
+  @GetMapping("/stock")
+  public Integer stock(@RequestParam("commodityCode") String commodityCode) {
+    return storageService.getStock(commodityCode);
+  }
+
+  @PostMapping("/stock/shard")
+  public String shard(@RequestParam("commodityCode") String commodityCode,
+                      @RequestParam("shards") Integer shards) {
+
+    storageService.shard(commodityCode, shards);
+    return "storage shard success";
+  }
 }
@@ -0,0 +1,37 @@
+package com.demo.storage.mapper;
+
+import com.demo.storage.bean.StorageBucketTbl;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+public interface StorageBucketTblMapper {
+
+  /**
+   * 库存足够扣减 count 的分片（快照读，不加锁）
+   */
+  List<StorageBucketTbl> selectAvailable(@Param("commodityCode") String commodityCode, @Param("count") int count);
+
+  /**
+   * 按 bucket_no 顺序锁住商品的全部分片，固定加锁顺序避免死锁
+   */
+  List<StorageBucketTbl> selectForUpdate(@Param("commodityCode") String commodityCode);
+
+  Integer sumCount(@Param("commodityCode") String commodityCode);
+
+  /**
+   * 分片之间库存差距过大的商品
+   */
+  List<String> selectSkewedCommodityCodes(@Param("skewRatio") int skewRatio);
+
+  /**
+   * 库存足够时扣减指定分片，返回影响行数
+   */
+  int deduct(@Param("commodityCode") String commodityCode, @Param("bucketNo") int bucketNo, @Param("count") int count);
+
+  int updateCount(@Param("id") Integer id, @Param("count") int count);
+
+  int insertBatch(@Param("buckets") List<StorageBucketTbl> buckets);
+
+  int deleteByCommodityCode(@Param("commodityCode") String commodityCode);
+}
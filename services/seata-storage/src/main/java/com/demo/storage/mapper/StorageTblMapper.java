@@ -1,6 +1,7 @@
 package com.demo.storage.mapper;
 
 import com.demo.storage.bean.StorageTbl;
+import org.apache.ibatis.annotations.Param;
 
 public interface StorageTblMapper {
 
@@ -16,5 +17,13 @@ public interface StorageTblMapper {
 
   int updateByPrimaryKey(StorageTbl record);
 
-  void deduct(String commodityCode, int count);
+  /**
+   * 扣减未分片商品的库存，商品已分片或不存在时返回 0
+   */
+  int deduct(@Param("commodityCode") String commodityCode, @Param("count") int count);
+
+  int applyPrededuct(@Param("commodityCode") String commodityCode, @Param("count") int count,
+                     @Param("appliedSeq") long appliedSeq, @Param("seq") long seq);
+
+  StorageTbl selectByCommodityCode(@Param("commodityCode") String commodityCode, @Param("forUpdate") boolean forUpdate);
 }
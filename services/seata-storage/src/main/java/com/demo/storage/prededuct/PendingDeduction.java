@@ -0,0 +1,10 @@
+package com.demo.storage.prededuct;
+
+/**
+ * 已确认、待落库的一次扣减
+ *
+ * @param seq   商品内递增的序号，用于落库去重
+ * @param count 扣减数量
+ */
+public record PendingDeduction(long seq, int count) {
+}
@@ -0,0 +1,196 @@
+package com.demo.storage.prededuct;
+
+import com.demo.storage.properties.PredeductProperties;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis 预扣库存
+ * <p>
+ * 每个商品一个 hash：available 可售，reserved 已预扣待二阶段，pending 已确认待落库，seq 扣减序号。
+ * 任何时刻 数据库库存 = available + reserved + pending，对账以此为准。
+ * 同一商品的 key 都带 {commodityCode} hash tag，Lua 脚本在 Redis Cluster 下也落在同一个 slot。
+ */
+@Component
+@RequiredArgsConstructor
+public class PredeductStockStore {
+
+  // KEYS: stock；ARGV: count, seq
+  private static final String WARMUP = """
+      if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+      redis.call('HSET', KEYS[1], 'available', ARGV[1], 'reserved', 0, 'pending', 0, 'seq', ARGV[2])
+      return 1
+      """;
+
+  // KEYS: stock, tx；ARGV: count, ttl。返回 1 成功，0 库存不足或已空回滚，-1 未加载
+  private static final String RESERVE = """
+      local state = redis.call('GET', KEYS[2])
+      if state then return state == 'TRIED' and 1 or 0 end
+      local available = tonumber(redis.call('HGET', KEYS[1], 'available'))
+      if not available then return -1 end
+      local count = tonumber(ARGV[1])
+      if available < count then return 0 end
+      redis.call('HINCRBY', KEYS[1], 'available', -count)
+      redis.call('HINCRBY', KEYS[1], 'reserved', count)
+      redis.call('SET', KEYS[2], 'TRIED', 'PX', ARGV[2])
+      return 1
+      """;
+
+  // KEYS: stock, tx, queue；ARGV: count, ttl。重复提交时直接返回
+  private static final String CONFIRM = """
+      if redis.call('GET', KEYS[2]) ~= 'TRIED' then return 0 end
+      local count = tonumber(ARGV[1])
+      redis.call('HINCRBY', KEYS[1], 'reserved', -count)
+      redis.call('HINCRBY', KEYS[1], 'pending', count)
+      local seq = redis.call('HINCRBY', KEYS[1], 'seq', 1)
+      redis.call('RPUSH', KEYS[3], seq .. ':' .. count)
+      redis.call('SET', KEYS[2], 'CONFIRMED', 'PX', ARGV[2])
+      return 1
+      """;
+
+  // KEYS: stock, tx；ARGV: count, ttl。没有一阶段记录时视为空回滚，写入标记防止一阶段悬挂
+  private static final String CANCEL = """
+      local state = redis.call('GET', KEYS[2])
+      if state == 'TRIED' then
+        local count = tonumber(ARGV[1])
+        redis.call('HINCRBY', KEYS[1], 'reserved', -count)
+        redis.call('HINCRBY', KEYS[1], 'available', count)
+      elseif state then
+        return 0
+      end
+      redis.call('SET', KEYS[2], 'CANCELLED', 'PX', ARGV[2])
+      return 1
+      """;
+
+  // 不在全局事务中时直接扣减。KEYS: stock, queue；ARGV: count
+  private static final String DEDUCT = """
+      local available = tonumber(redis.call('HGET', KEYS[1], 'available'))
+      if not available then return -1 end
+      local count = tonumber(ARGV[1])
+      if available < count then return 0 end
+      redis.call('HINCRBY', KEYS[1], 'available', -count)
+      redis.call('HINCRBY', KEYS[1], 'pending', count)
+      local seq = redis.call('HINCRBY', KEYS[1], 'seq', 1)
+      redis.call('RPUSH', KEYS[2], seq .. ':' .. count)
+      return 1
+      """;
+
+  // 落库成功后出队。KEYS: stock, queue；ARGV: size, count
+  private static final String ACK = """
+      redis.call('LTRIM', KEYS[2], tonumber(ARGV[1]), -1)
+      redis.call('HINCRBY', KEYS[1], 'pending', -tonumber(ARGV[2]))
+      return 1
+      """;
+
+  private final RedissonClient redissonClient;
+  private final PredeductProperties properties;
+  private final Set<String> enabled = ConcurrentHashMap.newKeySet();
+
+  /**
+   * 配置为预扣的商品：无论本实例是否加载成功，都不能再走数据库扣减，否则与其他实例的 Redis 库存重复售卖
+   */
+  public boolean isConfigured(String commodityCode) {
+    return properties.getCommodityCodes().contains(commodityCode);
+  }
+
+  /**
+   * 本实例已经加载过 Redis 库存
+   */
+  public boolean isEnabled(String commodityCode) {
+    return enabled.contains(commodityCode);
+  }
+
+  public Set<String> enabledCommodityCodes() {
+    return Collections.unmodifiableSet(enabled);
+  }
+
+  /**
+   * 加载数据库库存；Redis 中已有数据时保留（其中可能还有未落库的扣减）
+   *
+   * @return 是否是本次加载的
+   */
+  public boolean warmup(String commodityCode, int count, long seq) {
+    long created = eval(WARMUP, List.of(stockKey(commodityCode)), count, seq);
+    enabled.add(commodityCode);
+    return created == 1;
+  }
+
+  public long reserve(String commodityCode, String txId, int count) {
+    return eval(RESERVE, List.of(stockKey(commodityCode), txKey(commodityCode, txId)), count, ttl());
+  }
+
+  public void confirm(String commodityCode, String txId, int count) {
+    eval(CONFIRM, List.of(stockKey(commodityCode), txKey(commodityCode, txId), queueKey(commodityCode)), count, ttl());
+  }
+
+  public void cancel(String commodityCode, String txId, int count) {
+    eval(CANCEL, List.of(stockKey(commodityCode), txKey(commodityCode, txId)), count, ttl());
+  }
+
+  public long deduct(String commodityCode, int count) {
+    return eval(DEDUCT, List.of(stockKey(commodityCode), queueKey(commodityCode)), count);
+  }
+
+  /**
+   * 查看队首待落库的扣减，落库成功后再 {@link #ack} 出队
+   */
+  public List<PendingDeduction> peek(String commodityCode, int size) {
+    List<String> entries = redissonClient.<String>getList(queueKey(commodityCode), StringCodec.INSTANCE)
+        .range(0, size - 1);
+    List<PendingDeduction> result = new ArrayList<>(entries.size());
+    for (String entry : entries) {
+      int split = entry.indexOf(':');
+      result.add(new PendingDeduction(Long.parseLong(entry.substring(0, split)),
+          Integer.parseInt(entry.substring(split + 1))));
+    }
+    return result;
+  }
+
+  public void ack(String commodityCode, List<PendingDeduction> batch) {
+    int count = batch.stream().mapToInt(PendingDeduction::count).sum();
+    eval(ACK, List.of(stockKey(commodityCode), queueKey(commodityCode)), batch.size(), count);
+  }
+
+  /**
+   * available / reserved / pending / seq
+   */
+  public Map<String, String> snapshot(String commodityCode) {
+    return redissonClient.<String, String>getMap(stockKey(commodityCode), StringCodec.INSTANCE).readAllMap();
+  }
+
+  private long eval(String script, List<Object> keys, Object... args) {
+    Object[] values = new Object[args.length];
+    for (int i = 0; i < args.length; i++) {
+      values[i] = String.valueOf(args[i]);
+    }
+    Long result = redissonClient.getScript(StringCodec.INSTANCE)
+        .eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.INTEGER, keys, values);
+    return result == null ? 0 : result;
+  }
+
+  private long ttl() {
+    return properties.getTxTtl().toMillis();
+  }
+
+  private String stockKey(String commodityCode) {
+    return properties.getKeyPrefix() + "{" + commodityCode + "}";
+  }
+
+  private String queueKey(String commodityCode) {
+    return stockKey(commodityCode) + ":queue";
+  }
+
+  private String txKey(String commodityCode, String txId) {
+    return stockKey(commodityCode) + ":tx:" + txId;
+  }
+}
@@ -0,0 +1,33 @@
+package com.demo.storage.prededuct;
+
+import org.apache.seata.rm.tcc.api.BusinessActionContext;
+import org.apache.seata.rm.tcc.api.BusinessActionContextParameter;
+import org.apache.seata.rm.tcc.api.LocalTCC;
+import org.apache.seata.rm.tcc.api.TwoPhaseBusinessAction;
+
+/**
+ * 秒杀商品扣库存的 TCC 分支：一阶段只在 Redis 预扣，不访问数据库
+ */
+@LocalTCC
+public interface StockReservationAction {
+
+  /**
+   * 预扣库存，调用时 context 传 null，由 Seata 注入
+   *
+   * @return 库存不足或分支已被空回滚时返回 false
+   */
+  @TwoPhaseBusinessAction(name = "stockReservation", commitMethod = "confirm", rollbackMethod = "cancel")
+  boolean prepare(BusinessActionContext context,
+                  @BusinessActionContextParameter(paramName = "commodityCode") String commodityCode,
+                  @BusinessActionContextParameter(paramName = "count") int count);
+
+  /**
+   * 预扣转为已确认，进入待落库队列
+   */
+  boolean confirm(BusinessActionContext context);
+
+  /**
+   * 全局事务回滚，归还预扣的库存
+   */
+  boolean cancel(BusinessActionContext context);
+}
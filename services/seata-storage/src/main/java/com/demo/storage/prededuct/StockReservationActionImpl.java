@@ -0,0 +1,48 @@
+package com.demo.storage.prededuct;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.seata.rm.tcc.api.BusinessActionContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * 二阶段的幂等和防悬挂由 Redis 中的分支状态保证，不需要 tcc_fence_log 表
+ */
+@Component
+@RequiredArgsConstructor
+public class StockReservationActionImpl implements StockReservationAction {
+
+  private final PredeductStockStore predeductStockStore;
+
+  @Override
+  public boolean prepare(BusinessActionContext context, String commodityCode, int count) {
+    long result = predeductStockStore.reserve(commodityCode, txId(context), count);
+    if (result < 0) {
+      throw new IllegalStateException("商品 " + commodityCode + " 的预扣库存未加载");
+    }
+    return result == 1;
+  }
+
+  @Override
+  public boolean confirm(BusinessActionContext context) {
+    predeductStockStore.confirm(commodityCode(context), txId(context), count(context));
+    return true;
+  }
+
+  @Override
+  public boolean cancel(BusinessActionContext context) {
+    predeductStockStore.cancel(commodityCode(context), txId(context), count(context));
+    return true;
+  }
+
+  private static String txId(BusinessActionContext context) {
+    return context.getXid() + ":" + context.getBranchId();
+  }
+
+  private static String commodityCode(BusinessActionContext context) {
+    return context.getActionContext("commodityCode", String.class);
+  }
+
+  private static int count(BusinessActionContext context) {
+    return context.getActionContext("count", Integer.class);
+  }
+}
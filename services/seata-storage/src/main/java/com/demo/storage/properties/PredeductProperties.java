@@ -0,0 +1,47 @@
+package com.demo.storage.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "storage.prededuct")
+@Data
+public class PredeductProperties {
+
+  /**
+   * 走 Redis 预扣的商品（秒杀商品），启动时把数据库库存加载到 Redis
+   */
+  List<String> commodityCodes = new ArrayList<>();
+
+  String keyPrefix = "storage:prededuct:";
+
+  /**
+   * 已确认的扣减批量落库的间隔
+   */
+  Duration flushInterval = Duration.ofMillis(200);
+
+  /**
+   * 每个商品每批最多落库的扣减条数
+   */
+  int flushBatchSize = 500;
+
+  /**
+   * 数据库与 Redis 库存对账的间隔
+   */
+  Duration reconcileInterval = Duration.ofMinutes(1);
+
+  /**
+   * 对账等待落库锁的最长时间，拿不到就跳过本次
+   */
+  Duration reconcileLockWait = Duration.ofSeconds(1);
+
+  /**
+   * 事务分支状态在 Redis 中保留的时间，需大于 TC 重试二阶段的最长时间
+   */
+  Duration txTtl = Duration.ofHours(24);
+}
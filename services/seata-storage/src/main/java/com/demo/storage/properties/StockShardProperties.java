@@ -0,0 +1,28 @@
+package com.demo.storage.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "storage.shard")
+@Data
+public class StockShardProperties {
+
+  /**
+   * 单个商品允许的最大分片数
+   */
+  int maxShards = 64;
+
+  /**
+   * 后台重平衡的间隔
+   */
+  Duration rebalanceInterval = Duration.ofSeconds(5);
+
+  /**
+   * 最多的分片库存超过最少分片的多少倍时触发重平衡
+   */
+  int skewRatio = 4;
+}
@@ -1,7 +1,36 @@
 package com.demo.storage.service;
 
+import com.demo.storage.prededuct.PendingDeduction;
+
+import java.util.List;
+
 public interface StorageService {
 
   void deduct(String commodityCode, int count);
 
+  /**
+   * 商品总库存，已分片的商品汇总全部分片
+   */
+  int getStock(String commodityCode);
+
+  /**
+   * 把商品库存（含已有分片）重新均分到 shards 个分片
+   */
+  void shard(String commodityCode, int shards);
+
+  /**
+   * 把已分片商品的库存重新均分，避免部分分片提前扣空
+   */
+  void rebalance(String commodityCode);
+
+  /**
+   * 把数据库库存加载到 Redis，之后该商品扣库存只走 Redis 预扣
+   */
+  void warmupPrededuct(String commodityCode);
+
+  /**
+   * 已确认的预扣批量落库，已落库过的序号会被跳过
+   */
+  void applyPrededuct(String commodityCode, List<PendingDeduction> batch);
+
 }
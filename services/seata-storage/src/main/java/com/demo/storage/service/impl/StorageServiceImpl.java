@@ -1,23 +1,245 @@
 package com.demo.storage.service.impl;
 
+import com.demo.storage.bean.StorageBucketTbl;
+import com.demo.storage.bean.StorageTbl;
+import com.demo.storage.mapper.StorageBucketTblMapper;
 import com.demo.storage.mapper.StorageTblMapper;
+import com.demo.storage.prededuct.PendingDeduction;
+import com.demo.storage.prededuct.PredeductStockStore;
+import com.demo.storage.prededuct.StockReservationAction;
+import com.demo.storage.properties.StockShardProperties;
 import com.demo.storage.service.StorageService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.seata.core.context.RootContext;
+import org.apache.seata.spring.annotation.GlobalLock;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StorageServiceImpl implements StorageService {
 
   private final StorageTblMapper storageTblMapper;
+  private final StorageBucketTblMapper storageBucketTblMapper;
+  private final StockShardProperties stockShardProperties;
+  private final PredeductStockStore predeductStockStore;
+  private final StockReservationAction stockReservationAction;
 
   @Transactional
   @Override
   public void deduct(String commodityCode, int count) {
-    storageTblMapper.deduct(commodityCode, count);
+    if (predeductStockStore.isConfigured(commodityCode)) {
+      deductPrededucted(commodityCode, count);
+      return;
+    }
+    deductFromDatabase(commodityCode, count);
     if (count == 5) {
       throw new RuntimeException("库存不足");
     }
   }
+
+  /**
+   * 秒杀商品只在 Redis 预扣，不持有数据库行锁，确认后异步落库；Redis 库存不可用时拒绝扣减，不回退到数据库
+   */
+  private void deductPrededucted(String commodityCode, int count) {
+    if (!predeductStockStore.isEnabled(commodityCode)) {
+      // 启动时加载失败，请求到达时重试，失败则本次扣减失败
+      warmupPrededuct(commodityCode);
+    }
+    if (RootContext.inGlobalTransaction()) {
+      // 之后抛出的异常由二阶段 cancel 归还预扣
+      if (!stockReservationAction.prepare(null, commodityCode, count)) {
+        throw new RuntimeException("库存不足");
+      }
+      if (count == 5) {
+        throw new RuntimeException("库存不足");
+      }
+      return;
+    }
+    // 不在全局事务中时 Redis 扣减不会随本地事务回滚，放在最后执行
+    if (count == 5) {
+      throw new RuntimeException("库存不足");
+    }
+    long result = predeductStockStore.deduct(commodityCode, count);
+    if (result < 0) {
+      throw new IllegalStateException("商品 " + commodityCode + " 的预扣库存未加载");
+    }
+    if (result == 0) {
+      throw new RuntimeException("库存不足");
+    }
+  }
+
+  private void deductFromDatabase(String commodityCode, int count) {
+    // 未分片的商品仍然扣减 storage_tbl，只有这一条语句
+    if (storageTblMapper.deduct(commodityCode, count) == 1) {
+      return;
+    }
+    List<StorageBucketTbl> candidates = storageBucketTblMapper.selectAvailable(commodityCode, count);
+    if (!deductFromRandomBucket(commodityCode, count, candidates)) {
+      deductAcrossBuckets(commodityCode, count);
+    }
+  }
+
+  /**
+   * 从随机一个库存足够的分片扣减，并发请求落在不同行上，不再争抢同一把行锁
+   */
+  private boolean deductFromRandomBucket(String commodityCode, int count, List<StorageBucketTbl> candidates) {
+    int size = candidates.size();
+    if (size == 0) {
+      return false;
+    }
+    int start = ThreadLocalRandom.current().nextInt(size);
+    for (int i = 0; i < size; i++) {
+      StorageBucketTbl bucket = candidates.get((start + i) % size);
+      // 快照读之后分片可能已被其他请求扣空，条件更新失败就换下一个
+      if (storageBucketTblMapper.deduct(commodityCode, bucket.getBucketNo(), count) == 1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 没有单个分片够扣时，锁住全部分片依次扣减
+   */
+  private void deductAcrossBuckets(String commodityCode, int count) {
+    List<StorageBucketTbl> buckets = storageBucketTblMapper.selectForUpdate(commodityCode);
+    if (buckets.isEmpty()) {
+      // 商品不存在，与原来的扣减一样不报错
+      return;
+    }
+    int total = buckets.stream().mapToInt(StorageBucketTbl::getCount).sum();
+    if (total < count) {
+      throw new RuntimeException("库存不足");
+    }
+    int remaining = count;
+    for (StorageBucketTbl bucket : buckets) {
+      int take = Math.min(remaining, bucket.getCount());
+      if (take > 0) {
+        storageBucketTblMapper.updateCount(bucket.getId(), bucket.getCount() - take);
+        remaining -= take;
+      }
+      if (remaining == 0) {
+        break;
+      }
+    }
+  }
+
+  @Override
+  public int getStock(String commodityCode) {
+    StorageTbl storage = storageTblMapper.selectByCommodityCode(commodityCode, false);
+    Integer sharded = storageBucketTblMapper.sumCount(commodityCode);
+    int legacy = storage == null || storage.getCount() == null ? 0 : storage.getCount();
+    return legacy + (sharded == null ? 0 : sharded);
+  }
+
+  // 不参与全局事务，但要等待其他全局事务释放全局锁，否则会破坏它们的回滚镜像
+  @GlobalLock
+  @Transactional
+  @Override
+  public void shard(String commodityCode, int shards) {
+    if (shards < 1 || shards > stockShardProperties.getMaxShards()) {
+      throw new IllegalArgumentException("分片数必须在 1 到 " + stockShardProperties.getMaxShards() + " 之间");
+    }
+    if (predeductStockStore.isConfigured(commodityCode) || predeductStockStore.isEnabled(commodityCode)) {
+      throw new IllegalStateException("商品 " + commodityCode + " 已开启 Redis 预扣，不能分片");
+    }
+    StorageTbl storage = storageTblMapper.selectByCommodityCode(commodityCode, true);
+    if (storage == null) {
+      throw new IllegalArgumentException("商品不存在：" + commodityCode);
+    }
+    List<StorageBucketTbl> existing = storageBucketTblMapper.selectForUpdate(commodityCode);
+    int total = storage.getCount() + existing.stream().mapToInt(StorageBucketTbl::getCount).sum();
+
+    storageBucketTblMapper.deleteByCommodityCode(commodityCode);
+    int[] counts = split(total, shards);
+    List<StorageBucketTbl> buckets = new ArrayList<>(shards);
+    for (int i = 0; i < shards; i++) {
+      StorageBucketTbl bucket = new StorageBucketTbl();
+      bucket.setCommodityCode(commodityCode);
+      bucket.setBucketNo(i);
+      bucket.setCount(counts[i]);
+      buckets.add(bucket);
+    }
+    storageBucketTblMapper.insertBatch(buckets);
+
+    // 库存全部转移到分片，storage_tbl 只保留商品信息
+    StorageTbl update = new StorageTbl();
+    update.setId(storage.getId());
+    update.setCount(0);
+    update.setShards(shards);
+    storageTblMapper.updateByPrimaryKeySelective(update);
+    log.info("商品 {} 库存 {} 已拆分为 {} 个分片", commodityCode, total, shards);
+  }
+
+  @GlobalLock
+  @Transactional
+  @Override
+  public void rebalance(String commodityCode) {
+    List<StorageBucketTbl> buckets = storageBucketTblMapper.selectForUpdate(commodityCode);
+    if (buckets.size() < 2) {
+      return;
+    }
+    int total = buckets.stream().mapToInt(StorageBucketTbl::getCount).sum();
+    int[] counts = split(total, buckets.size());
+    for (int i = 0; i < counts.length; i++) {
+      StorageBucketTbl bucket = buckets.get(i);
+      if (bucket.getCount() != counts[i]) {
+        storageBucketTblMapper.updateCount(bucket.getId(), counts[i]);
+      }
+    }
+  }
+
+  @Override
+  public void warmupPrededuct(String commodityCode) {
+    StorageTbl storage = storageTblMapper.selectByCommodityCode(commodityCode, false);
+    if (storage == null) {
+      throw new IllegalArgumentException("商品不存在：" + commodityCode);
+    }
+    if (storage.getShards() > 0) {
+      throw new IllegalStateException("商品 " + commodityCode + " 已分片，不能再开启 Redis 预扣");
+    }
+    if (predeductStockStore.warmup(commodityCode, storage.getCount(), storage.getPredeductSeq())) {
+      log.info("商品 {} 库存 {} 已加载到 Redis", commodityCode, storage.getCount());
+    }
+  }
+
+  @GlobalLock
+  @Transactional
+  @Override
+  public void applyPrededuct(String commodityCode, List<PendingDeduction> batch) {
+    StorageTbl storage = storageTblMapper.selectByCommodityCode(commodityCode, true);
+    long appliedSeq = storage.getPredeductSeq();
+    long seq = appliedSeq;
+    int count = 0;
+    for (PendingDeduction deduction : batch) {
+      // 上次落库成功但出队前宕机，这部分扣减已经在数据库里了
+      if (deduction.seq() > appliedSeq) {
+        count += deduction.count();
+        seq = Math.max(seq, deduction.seq());
+      }
+    }
+    if (seq > appliedSeq) {
+      storageTblMapper.applyPrededuct(commodityCode, count, appliedSeq, seq);
+    }
+  }
+
+  /**
+   * 均分库存，余数分给前面的分片
+   */
+  private static int[] split(int total, int shards) {
+    int[] counts = new int[shards];
+    int base = total / shards;
+    int remainder = total % shards;
+    for (int i = 0; i < shards; i++) {
+      counts[i] = base + (i < remainder ? 1 : 0);
+    }
+    return counts;
+  }
 }
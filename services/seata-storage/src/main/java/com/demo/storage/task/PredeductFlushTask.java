@@ -0,0 +1,122 @@
+package com.demo.storage.task;
+
+import com.demo.storage.prededuct.PendingDeduction;
+import com.demo.storage.prededuct.PredeductStockStore;
+import com.demo.storage.properties.PredeductProperties;
+import com.demo.storage.service.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预扣库存的落库与对账，多个实例通过分布式锁保证同一时刻只有一个在落库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PredeductFlushTask implements SmartInitializingSingleton {
+
+  private final PredeductStockStore predeductStockStore;
+  private final StorageService storageService;
+  private final RedissonClient redissonClient;
+  private final PredeductProperties predeductProperties;
+
+  /**
+   * 在 Web 容器启动之前执行，此时还没有注册到 Nacos；加载失败的商品在本实例上拒绝扣减，请求到达时重试加载
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    warmup();
+  }
+
+  public void warmup() {
+    for (String commodityCode : predeductProperties.getCommodityCodes()) {
+      try {
+        storageService.warmupPrededuct(commodityCode);
+      } catch (Exception e) {
+        log.error("商品 {} 开启 Redis 预扣失败，加载成功前本实例拒绝扣减该商品", commodityCode, e);
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${storage.prededuct.flush-interval:200ms}")
+  public void flush() {
+    if (predeductStockStore.enabledCommodityCodes().isEmpty()) {
+      return;
+    }
+    RLock lock = lock();
+    if (!lock.tryLock()) {
+      return;
+    }
+    try {
+      for (String commodityCode : predeductStockStore.enabledCommodityCodes()) {
+        flush(commodityCode);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void flush(String commodityCode) {
+    try {
+      List<PendingDeduction> batch;
+      do {
+        batch = predeductStockStore.peek(commodityCode, predeductProperties.getFlushBatchSize());
+        if (batch.isEmpty()) {
+          return;
+        }
+        storageService.applyPrededuct(commodityCode, batch);
+        predeductStockStore.ack(commodityCode, batch);
+      } while (batch.size() == predeductProperties.getFlushBatchSize());
+    } catch (Exception e) {
+      log.warn("商品 {} 预扣库存落库失败，下次重试：{}", commodityCode, e.getMessage());
+    }
+  }
+
+  // 持有落库锁时 pending 与数据库一致：数据库库存 = available + reserved + pending
+  @Scheduled(fixedDelayString = "${storage.prededuct.reconcile-interval:1m}")
+  public void reconcile() {
+    if (predeductStockStore.enabledCommodityCodes().isEmpty()) {
+      return;
+    }
+    RLock lock = lock();
+    // 不能阻塞调度线程：其他节点正在落库或对账时跳过本次
+    try {
+      if (!lock.tryLock(predeductProperties.getReconcileLockWait().toMillis(), TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    try {
+      for (String commodityCode : predeductStockStore.enabledCommodityCodes()) {
+        Map<String, String> snapshot = predeductStockStore.snapshot(commodityCode);
+        long available = Long.parseLong(snapshot.getOrDefault("available", "0"));
+        long reserved = Long.parseLong(snapshot.getOrDefault("reserved", "0"));
+        long pending = Long.parseLong(snapshot.getOrDefault("pending", "0"));
+        int stock = storageService.getStock(commodityCode);
+        if (stock != available + reserved + pending) {
+          log.warn("商品 {} 库存对账不一致：数据库 {}，Redis 可售 {} + 预扣 {} + 待落库 {}",
+              commodityCode, stock, available, reserved, pending);
+        }
+      }
+    } catch (Exception e) {
+      log.warn("预扣库存对账失败：{}", e.getMessage());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private RLock lock() {
+    return redissonClient.getLock(predeductProperties.getKeyPrefix() + "flush-lock");
+  }
+}
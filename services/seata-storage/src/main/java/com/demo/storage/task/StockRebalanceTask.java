@@ -0,0 +1,31 @@
+package com.demo.storage.task;
+
+import com.demo.storage.mapper.StorageBucketTblMapper;
+import com.demo.storage.properties.StockShardProperties;
+import com.demo.storage.service.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockRebalanceTask {
+
+  private final StorageBucketTblMapper storageBucketTblMapper;
+  private final StorageService storageService;
+  private final StockShardProperties stockShardProperties;
+
+  // 分片扣减是随机的，运行一段时间后部分分片会先扣空，定期把库存重新均分
+  @Scheduled(fixedDelayString = "${storage.shard.rebalance-interval:5s}")
+  public void rebalance() {
+    for (String commodityCode : storageBucketTblMapper.selectSkewedCommodityCodes(stockShardProperties.getSkewRatio())) {
+      try {
+        storageService.rebalance(commodityCode);
+      } catch (Exception e) {
+        log.warn("商品 {} 库存重平衡失败：{}", commodityCode, e.getMessage());
+      }
+    }
+  }
+}
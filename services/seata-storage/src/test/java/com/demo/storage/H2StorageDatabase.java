@@ -0,0 +1,77 @@
+package com.demo.storage;
+
+import com.demo.storage.mapper.StorageBucketTblMapper;
+import com.demo.storage.mapper.StorageTblMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 基于内嵌 H2 的库存库，表结构与 doc/sql/seata-project-init.sql 一致
+ */
+public class H2StorageDatabase implements AutoCloseable {
+
+  private final HikariDataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final StorageTblMapper storageTblMapper;
+  private final StorageBucketTblMapper storageBucketTblMapper;
+
+  public H2StorageDatabase(String name) throws Exception {
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    dataSource.setMaximumPoolSize(4);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("drop table if exists storage_tbl");
+    jdbcTemplate.execute("drop table if exists storage_bucket_tbl");
+    jdbcTemplate.execute("""
+        create table storage_tbl
+        (
+            id             int generated by default as identity primary key,
+            commodity_code varchar(255) unique,
+            count          int default 0,
+            prededuct_seq  bigint default 0 not null,
+            shards         int default 0 not null
+        )""");
+    jdbcTemplate.execute("""
+        create table storage_bucket_tbl
+        (
+            id             int generated by default as identity primary key,
+            commodity_code varchar(255) not null,
+            bucket_no      int not null,
+            count          int default 0,
+            unique (commodity_code, bucket_no)
+        )""");
+
+    SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+    factoryBean.setDataSource(dataSource);
+    factoryBean.setMapperLocations(
+        new ClassPathResource("mapper/StorageTblMapper.xml"),
+        new ClassPathResource("mapper/StorageBucketTblMapper.xml"));
+    SqlSessionTemplate sqlSession = new SqlSessionTemplate(factoryBean.getObject());
+    storageTblMapper = sqlSession.getMapper(StorageTblMapper.class);
+    storageBucketTblMapper = sqlSession.getMapper(StorageBucketTblMapper.class);
+  }
+
+  public void insertCommodity(String commodityCode, int count) {
+    jdbcTemplate.update("insert into storage_tbl (commodity_code, count) values (?, ?)", commodityCode, count);
+  }
+
+  public StorageTblMapper storageTblMapper() {
+    return storageTblMapper;
+  }
+
+  public StorageBucketTblMapper storageBucketTblMapper() {
+    return storageBucketTblMapper;
+  }
+
+  public JdbcTemplate jdbcTemplate() {
+    return jdbcTemplate;
+  }
+
+  @Override
+  public void close() {
+    dataSource.close();
+  }
+}
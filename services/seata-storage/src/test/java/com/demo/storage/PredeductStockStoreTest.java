@@ -0,0 +1,167 @@
+package com.demo.storage;
+
+import com.demo.storage.prededuct.PendingDeduction;
+import com.demo.storage.prededuct.PredeductStockStore;
+import com.demo.storage.prededuct.StockReservationAction;
+import com.demo.storage.properties.PredeductProperties;
+import com.demo.storage.properties.StockShardProperties;
+import com.demo.storage.service.impl.StorageServiceImpl;
+import com.demo.storage.task.PredeductFlushTask;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RLock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class PredeductStockStoreTest {
+
+  private static EmbeddedRedis redis;
+
+  private H2StorageDatabase database;
+  private PredeductStockStore store;
+  private StorageServiceImpl storageService;
+  private PredeductFlushTask flushTask;
+
+  @BeforeAll
+  static void start() throws Exception {
+    redis = new EmbeddedRedis();
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    redis.close();
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    redis.client().getKeys().flushall();
+    database = new H2StorageDatabase("prededuct");
+    database.insertCommodity("P0001", 100);
+    PredeductProperties properties = new PredeductProperties();
+    // P0002 启动时还不存在，加载失败
+    properties.setCommodityCodes(List.of("P0001", "P0002"));
+    properties.setFlushBatchSize(2);
+    properties.setReconcileLockWait(Duration.ofMillis(100));
+    store = new PredeductStockStore(redis.client(), properties);
+    storageService = new StorageServiceImpl(database.storageTblMapper(), database.storageBucketTblMapper(),
+        new StockShardProperties(), store, mock(StockReservationAction.class));
+    flushTask = new PredeductFlushTask(store, storageService, redis.client(), properties);
+    flushTask.afterSingletonsInstantiated();
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.close();
+  }
+
+  @Test
+  void reserveConfirmCancelAreIdempotent() {
+    assertEquals(1, store.reserve("P0001", "tx1", 30));
+    assertEquals(1, store.reserve("P0001", "tx1", 30));
+    assertEquals(stock(70, 30, 0), counters());
+
+    store.confirm("P0001", "tx1", 30);
+    store.confirm("P0001", "tx1", 30);
+    assertEquals(stock(70, 0, 30), counters());
+    assertEquals(List.of(new PendingDeduction(1, 30)), store.peek("P0001", 10));
+
+    // 一阶段没执行就收到回滚：空回滚，之后迟到的一阶段不能再预扣
+    store.cancel("P0001", "tx2", 10);
+    assertEquals(0, store.reserve("P0001", "tx2", 10));
+
+    assertEquals(0, store.reserve("P0001", "tx3", 71));
+    assertEquals(1, store.reserve("P0001", "tx3", 20));
+    store.cancel("P0001", "tx3", 20);
+    store.cancel("P0001", "tx3", 20);
+    assertEquals(stock(70, 0, 30), counters());
+
+    assertEquals(-1, store.reserve("P0002", "tx4", 1));
+  }
+
+  @Test
+  void flushSkipsDeductionsAlreadyBelowTheSeqWatermark() {
+    storageService.deduct("P0001", 1);
+    storageService.deduct("P0001", 2);
+    storageService.deduct("P0001", 3);
+
+    // 第一批落库成功，但出队之前宕机
+    List<PendingDeduction> firstBatch = store.peek("P0001", 2);
+    storageService.applyPrededuct("P0001", firstBatch);
+    assertEquals(97, database.storageTblMapper().selectByCommodityCode("P0001", false).getCount());
+
+    flushTask.flush();
+
+    assertEquals(94, database.storageTblMapper().selectByCommodityCode("P0001", false).getCount());
+    assertEquals(3L, database.storageTblMapper().selectByCommodityCode("P0001", false).getPredeductSeq());
+    assertEquals(List.of(), store.peek("P0001", 10));
+    assertEquals(stock(94, 0, 0), counters());
+  }
+
+  @Test
+  void failedDeductOutsideGlobalTransactionKeepsRedisStock() {
+    assertThrows(RuntimeException.class, () -> storageService.deduct("P0001", 5));
+    assertEquals(stock(100, 0, 0), counters());
+
+    assertThrows(RuntimeException.class, () -> storageService.deduct("P0001", 101));
+    assertEquals(stock(100, 0, 0), counters());
+  }
+
+  @Test
+  void missingRedisStockIsNotReportedAsOutOfStock() {
+    redis.client().getKeys().flushall();
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> storageService.deduct("P0001", 1));
+    assertTrue(e.getMessage().contains("未加载"));
+    assertEquals(100, database.storageTblMapper().selectByCommodityCode("P0001", false).getCount());
+  }
+
+  @Test
+  void commodityNotLoadedAtStartupNeverFallsBackToDatabase() {
+    assertFalse(store.isEnabled("P0002"));
+    assertThrows(IllegalArgumentException.class, () -> storageService.deduct("P0002", 1));
+
+    database.insertCommodity("P0002", 50);
+    storageService.deduct("P0002", 1);
+
+    assertTrue(store.isEnabled("P0002"));
+    assertEquals("49", store.snapshot("P0002").get("available"));
+    assertEquals(50, database.storageTblMapper().selectByCommodityCode("P0002", false).getCount());
+  }
+
+  @Test
+  void reconcileSkipsWhileAnotherNodeHoldsTheLock() {
+    RLock lock = redis.client().getLock("storage:prededuct:flush-lock");
+    CompletableFuture.runAsync(() -> lock.lock(30, TimeUnit.SECONDS)).join();
+    try {
+      long start = System.nanoTime();
+      flushTask.reconcile();
+      assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    } finally {
+      lock.forceUnlock();
+    }
+  }
+
+  private Map<String, String> counters() {
+    Map<String, String> snapshot = store.snapshot("P0001");
+    return Map.of("available", snapshot.get("available"), "reserved", snapshot.get("reserved"),
+        "pending", snapshot.get("pending"));
+  }
+
+  private static Map<String, String> stock(long available, long reserved, long pending) {
+    return Map.of("available", String.valueOf(available), "reserved", String.valueOf(reserved),
+        "pending", String.valueOf(pending));
+  }
+}
@@ -0,0 +1,76 @@
+package com.demo.storage;
+
+import com.demo.storage.prededuct.PredeductStockStore;
+import com.demo.storage.prededuct.StockReservationAction;
+import com.demo.storage.properties.StockShardProperties;
+import com.demo.storage.service.impl.StorageServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ShardedStockTest {
+
+  private H2StorageDatabase database;
+  private StorageServiceImpl storageService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    database = new H2StorageDatabase("sharded-stock");
+    database.insertCommodity("P0001", 100);
+    storageService = new StorageServiceImpl(database.storageTblMapper(), database.storageBucketTblMapper(),
+        new StockShardProperties(), mock(PredeductStockStore.class), mock(StockReservationAction.class));
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.close();
+  }
+
+  @Test
+  void unshardedDeductUpdatesStorageTbl() {
+    storageService.deduct("P0001", 3);
+
+    assertEquals(97, storageService.getStock("P0001"));
+    assertEquals(97, database.storageTblMapper().selectByCommodityCode("P0001", false).getCount());
+  }
+
+  @Test
+  void shardedDeductTakesFromOneBucket() {
+    storageService.shard("P0001", 4);
+    assertEquals(List.of(25, 25, 25, 25), bucketCounts());
+
+    storageService.deduct("P0001", 3);
+
+    assertEquals(0, database.storageTblMapper().selectByCommodityCode("P0001", false).getCount());
+    assertEquals(97, storageService.getStock("P0001"));
+    assertEquals(1, bucketCounts().stream().filter(count -> count == 22).count());
+  }
+
+  @Test
+  void deductSpillsOverAcrossBucketsAndRebalances() {
+    storageService.shard("P0001", 4);
+
+    // 单个分片只有 25，只能跨分片扣减
+    storageService.deduct("P0001", 30);
+    assertEquals(List.of(0, 20, 25, 25), bucketCounts());
+    assertThrows(RuntimeException.class, () -> storageService.deduct("P0001", 71));
+    assertEquals(70, storageService.getStock("P0001"));
+
+    assertTrue(database.storageBucketTblMapper().selectSkewedCommodityCodes(4).contains("P0001"));
+    storageService.rebalance("P0001");
+    assertEquals(List.of(18, 18, 17, 17), bucketCounts());
+    assertTrue(database.storageBucketTblMapper().selectSkewedCommodityCodes(4).isEmpty());
+  }
+
+  private List<Integer> bucketCounts() {
+    return database.jdbcTemplate().queryForList(
+        "select count from storage_bucket_tbl where commodity_code = 'P0001' order by bucket_no", Integer.class);
+  }
+}
@@ -0,0 +1,141 @@
+package com.demo.order.cache;
+
+import com.demo.order.exception.ProductUnavailableException;
+import com.demo.order.feign.ProductFeignClient;
+import com.demo.order.properties.ProductCacheProperties;
+import com.demo.product.bean.Product;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 商品本地缓存，挡在 ProductFeignClient 前面
+ * <p>
+ * 同一个 productId 的并发未命中只会发起一次远程调用，其余线程等待同一个结果；
+ * 过了 refreshAfterWrite 之后读请求仍然拿旧值，由后台异步刷新。
+ * 远程调用失败时加载抛出异常：后台刷新失败保留旧值且不更新写入时间，旧值最多保留到 expireAfterWrite；
+ * 未命中时的失败在缓存外降级为旧值或占位商品，占位商品不进入缓存。
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+  private final LoadingCache<Long, Product> cache;
+
+  public ProductCache(ProductFeignClient productFeignClient,
+                      ProductCacheProperties properties,
+                      MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .refreshAfterWrite(properties.getRefreshAfterWrite())
+        .expireAfterWrite(properties.getExpireAfterWrite())
+        .recordStats()
+        .build(new CacheLoader<>() {
+          @Override
+          public Product load(Long productId) {
+            return productFeignClient.getProductById(productId);
+          }
+
+          @Override
+          public Map<Long, Product> loadAll(Set<? extends Long> productIds) {
+            List<Product> products = productFeignClient.getProductsByIds(List.copyOf(productIds));
+            return products.stream()
+                .collect(Collectors.toMap(Product::getId, product -> product, (a, b) -> a));
+          }
+        });
+    // 暴露 cache.gets / cache.puts / cache.evictions / cache.load.duration 等指标
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "product");
+  }
+
+  /**
+   * @throws NoSuchElementException 商品不存在
+   */
+  public Product getProduct(Long productId) {
+    Product product;
+    try {
+      product = cache.get(productId);
+    } catch (ProductUnavailableException | FeignException e) {
+      return degraded(productId, e);
+    }
+    if (product == null) {
+      throw new NoSuchElementException("商品不存在：" + productId);
+    }
+    return product;
+  }
+
+  /**
+   * 批量获取，未命中的部分合并成一次批量远程调用，返回顺序与入参一致
+   *
+   * @throws NoSuchElementException 有商品不存在
+   */
+  public List<Product> getProducts(List<Long> productIds) {
+    Map<Long, Product> products;
+    try {
+      products = cache.getAll(productIds);
+    } catch (ProductUnavailableException | FeignException e) {
+      return productIds.stream()
+          .map(productId -> degraded(productId, e))
+          .toList();
+    }
+    List<Long> missing = productIds.stream()
+        .filter(productId -> !products.containsKey(productId))
+        .toList();
+    if (!missing.isEmpty()) {
+      throw new NoSuchElementException("商品不存在：" + missing);
+    }
+    return productIds.stream()
+        .map(products::get)
+        .toList();
+  }
+
+  /**
+   * 只读缓存，未命中时不加载，给自己发起远程调用的非阻塞路径使用
+   */
+  public Product getIfPresent(Long productId) {
+    return cache.getIfPresent(productId);
+  }
+
+  public void put(Product product) {
+    cache.put(product.getId(), product);
+  }
+
+  /**
+   * 远程调用失败时的降级结果：还没过期的旧值，没有旧值时返回价格为 0 的占位商品，两者都不写回缓存
+   */
+  public Product degraded(Long productId, Throwable cause) {
+    Product stale = cache.policy().getIfPresentQuietly(productId);
+    if (stale != null) {
+      log.warn("商品 {} 远程调用失败，使用缓存旧值：{}", productId, cause.getMessage());
+      return stale;
+    }
+    log.warn("商品 {} 远程调用失败且没有缓存，返回占位商品：{}", productId, cause.getMessage());
+    Product product = new Product();
+    product.setId(productId);
+    product.setPrice(new BigDecimal("0"));
+    product.setProductName("未知商品");
+    product.setNum(0);
+    return product;
+  }
+
+  public void invalidate(Long productId) {
+    cache.invalidate(productId);
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+}
@@ -6,6 +6,7 @@ import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
 public class OrderConfig {
@@ -26,4 +27,10 @@ public class OrderConfig {
     return new RestTemplate();
   }
 
+  @LoadBalanced // WebClient 同样走 service-product 的负载均衡
+  @Bean
+  WebClient.Builder loadBalancedWebClientBuilder() {
+    return WebClient.builder();
+  }
+
 }
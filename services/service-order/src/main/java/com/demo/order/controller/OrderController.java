@@ -4,12 +4,16 @@ import com.alibaba.csp.sentinel.annotation.SentinelResource;
 import com.demo.order.bean.Order;
 import com.demo.order.properties.OrderProperties;
 import com.demo.order.service.OrderService;
+import com.demo.order.service.ReactiveOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -18,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class OrderController {
 
   private final OrderService orderService;
+  private final ReactiveOrderService reactiveOrderService;
   private final OrderProperties orderProperties;
 
   @GetMapping("/config")
@@ -30,6 +35,19 @@ public class OrderController {
     return orderService.createOrder(productId, userId);
   }
 
+  /**
+   * 非阻塞下单，远程调用期间释放 servlet 线程
+   */
+  @GetMapping("/reactive-create")
+  public Mono<Order> reactiveCreateOrder(@RequestParam("userId") Long userId, @RequestParam("productId") Long productId) {
+    return reactiveOrderService.createOrder(productId, userId);
+  }
+
+  @GetMapping("/batch-create")
+  public Order batchCreateOrder(@RequestParam("userId") Long userId, @RequestParam("productIds") List<Long> productIds) {
+    return orderService.createOrder(productIds, userId);
+  }
+
   @GetMapping("/spike")
   @SentinelResource(value = "spike-order", fallback = "spikeFallback")
   public Order spike(@RequestParam(value = "userId", required = false) Long userId, @RequestParam(value = "productId", defaultValue = "1000") Long productId) {
@@ -0,0 +1,15 @@
+package com.demo.order.exception;
+
+/**
+ * service-product 不可用（超时、熔断或返回错误），由 ProductCache 负责降级
+ */
+public class ProductUnavailableException extends RuntimeException {
+
+  public ProductUnavailableException(String message) {
+    super(message);
+  }
+
+  public ProductUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -5,6 +5,10 @@ import com.demo.product.bean.Product;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(value = "service-product", fallback = ProductFeignClientFallback.class) // feign客户端
 public interface ProductFeignClient {
@@ -12,4 +16,7 @@ public interface ProductFeignClient {
   @GetMapping("/product/{id}")
   Product getProductById(@PathVariable("id") Long id);
 
+  @PostMapping("/product/batch")
+  List<Product> getProductsByIds(@RequestBody List<Long> ids);
+
 }
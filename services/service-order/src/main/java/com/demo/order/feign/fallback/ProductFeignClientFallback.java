@@ -1,22 +1,28 @@
 package com.demo.order.feign.fallback;
 
-import java.math.BigDecimal;
+import java.util.List;
 
+import com.demo.order.exception.ProductUnavailableException;
 import com.demo.order.feign.ProductFeignClient;
 import com.demo.product.bean.Product;
 import org.springframework.stereotype.Component;
 
+/**
+ * 远程调用失败时抛出异常而不是返回占位商品：ProductCache 的加载失败后保留旧值，
+ * 占位商品在缓存外生成，不会被当成正常结果缓存下来
+ */
 @Component
 public class ProductFeignClientFallback implements ProductFeignClient {
+
   @Override
   public Product getProductById(Long id) {
     System.out.println("兜底回调....");
-    Product product = new Product();
-    product.setId(id);
-    product.setPrice(new BigDecimal("0"));
-    product.setProductName("未知商品");
-    product.setNum(0);
+    throw new ProductUnavailableException("service-product 不可用，productId=" + id);
+  }
 
-    return product;
+  @Override
+  public List<Product> getProductsByIds(List<Long> ids) {
+    System.out.println("兜底回调....");
+    throw new ProductUnavailableException("service-product 不可用，productIds=" + ids);
   }
 }
@@ -3,15 +3,34 @@ package com.demo.order.interceptor;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
+/**
+ * 给发往下游的请求加上 X-Token，Feign 和 WebClient 共用
+ */
 @Component
-public class XTokenRequestInterceptor implements RequestInterceptor {
+public class XTokenRequestInterceptor implements RequestInterceptor, ExchangeFilterFunction {
+
+  public static final String HEADER = "X-Token";
 
   @Override
   public void apply(RequestTemplate template) {
     System.out.println("XTokenRequestInterceptor ....... ");
-    template.header("X-Token", UUID.randomUUID().toString());
+    template.header(HEADER, nextToken());
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    return next.exchange(ClientRequest.from(request).header(HEADER, nextToken()).build());
+  }
+
+  private String nextToken() {
+    return UUID.randomUUID().toString();
   }
 }
@@ -0,0 +1,28 @@
+package com.demo.order.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "order.product-cache")
+@Data
+public class ProductCacheProperties {
+
+  /**
+   * 最多缓存的商品数量，超出后按 W-TinyLFU 淘汰
+   */
+  long maximumSize = 10_000;
+
+  /**
+   * 写入多久后触发后台刷新，刷新期间继续返回旧值
+   */
+  Duration refreshAfterWrite = Duration.ofSeconds(5);
+
+  /**
+   * 写入多久后彻底过期，也是远程调用失败时兜底旧数据的最长保留时间
+   */
+  Duration expireAfterWrite = Duration.ofMinutes(10);
+}
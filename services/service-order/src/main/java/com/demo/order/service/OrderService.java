@@ -2,7 +2,14 @@ package com.demo.order.service;
 
 import com.demo.order.bean.Order;
 
+import java.util.List;
+
 public interface OrderService {
 
   Order createOrder(Long productId, Long userId);
+
+  /**
+   * 多商品下单，一次远程调用取回全部商品
+   */
+  Order createOrder(List<Long> productIds, Long userId);
 }
@@ -0,0 +1,12 @@
+package com.demo.order.service;
+
+import com.demo.order.bean.Order;
+import reactor.core.publisher.Mono;
+
+/**
+ * 非阻塞下单：远程调用期间不占用请求线程
+ */
+public interface ReactiveOrderService {
+
+  Mono<Order> createOrder(Long productId, Long userId);
+}
@@ -3,7 +3,7 @@ package com.demo.order.service.impl;
 import com.alibaba.csp.sentinel.annotation.SentinelResource;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.demo.order.bean.Order;
-import com.demo.order.feign.ProductFeignClient;
+import com.demo.order.cache.ProductCache;
 import com.demo.order.service.OrderService;
 import com.demo.product.bean.Product;
 import lombok.RequiredArgsConstructor;
@@ -25,23 +25,46 @@ public class OrderServiceImpl implements OrderService {
   private final DiscoveryClient discoveryClient;
   private final RestTemplate restTemplate;
   private final LoadBalancerClient loadBalancerClient;
-  private final ProductFeignClient productFeignClient;
+  private final ProductCache productCache;
 
   @SentinelResource(value = "createOrder", blockHandler = "createOrderFallback")
   @Override
   public Order createOrder(Long productId, Long userId) {
-    Product product = productFeignClient.getProductById(productId);
+    Product product = productCache.getProduct(productId);
+    return newOrder(userId, List.of(product));
+  }
+
+  @SentinelResource(value = "createOrder", blockHandler = "createOrderFallback")
+  @Override
+  public Order createOrder(List<Long> productIds, Long userId) {
+    List<Product> products = productCache.getProducts(productIds);
+    return newOrder(userId, products);
+  }
+
+  static Order newOrder(Long userId, List<Product> products) {
+    BigDecimal totalAmount = BigDecimal.ZERO;
+    for (Product product : products) {
+      totalAmount = totalAmount.add(product.getPrice().multiply(new BigDecimal(product.getNum())));
+    }
     Order order = new Order();
     order.setId(1L);
-    order.setTotalAmount(product.getPrice().multiply(new BigDecimal(product.getNum())));
+    order.setTotalAmount(totalAmount);
     order.setUserId(userId);
     order.setNickName("张三");
     order.setAddress("北京");
-    order.setProductList(List.of(product));
+    order.setProductList(products);
     return order;
   }
 
+  public Order createOrderFallback(List<Long> productIds, Long userId, BlockException e) {
+    return blockedOrder(userId, e);
+  }
+
   public Order createOrderFallback(Long productId, Long userId, BlockException e) {
+    return blockedOrder(userId, e);
+  }
+
+  static Order blockedOrder(Long userId, BlockException e) {
     Order order = new Order();
     order.setId(0L);
     order.setTotalAmount(new BigDecimal("0"));
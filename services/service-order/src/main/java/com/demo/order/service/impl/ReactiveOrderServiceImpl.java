@@ -0,0 +1,68 @@
+package com.demo.order.service.impl;
+
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.demo.order.bean.Order;
+import com.demo.order.cache.ProductCache;
+import com.demo.order.interceptor.XTokenRequestInterceptor;
+import com.demo.order.service.ReactiveOrderService;
+import com.demo.product.bean.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+public class ReactiveOrderServiceImpl implements ReactiveOrderService {
+
+  // 与 application-feign.yml 中 service-product 的 read-timeout 保持一致
+  private static final Duration PRODUCT_TIMEOUT = Duration.ofSeconds(5);
+
+  private final WebClient webClient;
+  private final ProductCache productCache;
+
+  public ReactiveOrderServiceImpl(WebClient.Builder loadBalancedWebClientBuilder,
+                                  XTokenRequestInterceptor xTokenRequestInterceptor,
+                                  ProductCache productCache) {
+    this.webClient = loadBalancedWebClientBuilder
+        .baseUrl("http://service-product")
+        .filter(xTokenRequestInterceptor)
+        .build();
+    this.productCache = productCache;
+  }
+
+  @Override
+  public Mono<Order> createOrder(Long productId, Long userId) {
+    return Mono.defer(() -> {
+          // 命中时直接用缓存，未命中才发起非阻塞调用
+          Product cached = productCache.getIfPresent(productId);
+          return cached != null ? Mono.just(cached) : fetchProduct(productId);
+        })
+        .map(product -> OrderServiceImpl.newOrder(userId, List.of(product)))
+        // 与 OrderServiceImpl#createOrder 共用 createOrder 资源，流控规则同时生效
+        .transform(new SentinelReactorTransformer<>("createOrder"))
+        .onErrorResume(BlockException.class, e -> Mono.just(OrderServiceImpl.blockedOrder(userId, e)));
+  }
+
+  /**
+   * 远程调用失败（错误响应、连接失败、超时）时与 Feign 路径一样降级为缓存旧值或占位商品
+   */
+  private Mono<Product> fetchProduct(Long productId) {
+    return webClient.get()
+        .uri("/product/{id}", productId)
+        .retrieve()
+        .bodyToMono(Product.class)
+        .timeout(PRODUCT_TIMEOUT)
+        .doOnNext(productCache::put)
+        .switchIfEmpty(Mono.error(() -> new NoSuchElementException("商品不存在：" + productId)))
+        .onErrorResume(e -> e instanceof WebClientException || e instanceof TimeoutException,
+            e -> Mono.just(productCache.degraded(productId, e)));
+  }
+}
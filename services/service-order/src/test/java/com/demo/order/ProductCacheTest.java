@@ -0,0 +1,123 @@
+package com.demo.order;
+
+import com.demo.order.cache.ProductCache;
+import com.demo.order.exception.ProductUnavailableException;
+import com.demo.order.feign.ProductFeignClient;
+import com.demo.order.properties.ProductCacheProperties;
+import com.demo.product.bean.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProductCacheTest {
+
+  @Test
+  void concurrentMissesShareOneRemoteCall() throws InterruptedException {
+    AtomicInteger remoteCalls = new AtomicInteger();
+    ProductFeignClient client = new ProductFeignClient() {
+      @Override
+      public Product getProductById(Long id) {
+        remoteCalls.incrementAndGet();
+        try {
+          TimeUnit.MILLISECONDS.sleep(100);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return product(id);
+      }
+
+      @Override
+      public List<Product> getProductsByIds(List<Long> ids) {
+        remoteCalls.incrementAndGet();
+        return ids.stream().map(ProductCacheTest::product).toList();
+      }
+    };
+    ProductCache productCache = new ProductCache(client, new ProductCacheProperties(), new SimpleMeterRegistry());
+
+    int threads = 64;
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < threads; i++) {
+        executor.execute(() -> {
+          try {
+            start.await();
+            productCache.getProduct(1000L);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            done.countDown();
+          }
+        });
+      }
+      start.countDown();
+      done.await();
+    }
+
+    assertEquals(1, remoteCalls.get());
+    assertEquals(threads, productCache.stats().requestCount());
+
+    productCache.getProducts(List.of(1000L, 1L, 2L));
+    assertEquals(2, remoteCalls.get());
+  }
+
+  @Test
+  void upstreamFailureDegradesWithoutCaching() {
+    AtomicBoolean down = new AtomicBoolean();
+    ProductFeignClient client = new ProductFeignClient() {
+      @Override
+      public Product getProductById(Long id) {
+        if (down.get()) {
+          throw new ProductUnavailableException("down");
+        }
+        return id == 404L ? null : product(id);
+      }
+
+      @Override
+      public List<Product> getProductsByIds(List<Long> ids) {
+        if (down.get()) {
+          throw new ProductUnavailableException("down");
+        }
+        return ids.stream().filter(id -> id != 404L).map(ProductCacheTest::product).toList();
+      }
+    };
+    ProductCacheProperties properties = new ProductCacheProperties();
+    properties.setRefreshAfterWrite(Duration.ofMillis(1));
+    ProductCache productCache = new ProductCache(client, properties, new SimpleMeterRegistry());
+    productCache.getProduct(1L);
+
+    down.set(true);
+    // 旧值仍然可用，未命中的商品返回占位且不进入缓存
+    assertEquals(new BigDecimal("99"), productCache.getProduct(1L).getPrice());
+    assertEquals("未知商品", productCache.getProduct(2L).getProductName());
+    assertEquals(List.of(new BigDecimal("99"), BigDecimal.ZERO),
+        productCache.getProducts(List.of(1L, 3L)).stream().map(Product::getPrice).toList());
+
+    down.set(false);
+    assertEquals("苹果-2", productCache.getProduct(2L).getProductName());
+    assertThrows(NoSuchElementException.class, () -> productCache.getProduct(404L));
+    assertThrows(NoSuchElementException.class, () -> productCache.getProducts(List.of(5L, 404L)));
+  }
+
+  private static Product product(Long id) {
+    Product product = new Product();
+    product.setId(id);
+    product.setPrice(new BigDecimal("99"));
+    product.setProductName("苹果-" + id);
+    product.setNum(2);
+    return product;
+  }
+}
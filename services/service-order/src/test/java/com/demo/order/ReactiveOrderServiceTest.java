@@ -0,0 +1,83 @@
+package com.demo.order;
+
+import com.demo.order.bean.Order;
+import com.demo.order.cache.ProductCache;
+import com.demo.order.exception.ProductUnavailableException;
+import com.demo.order.feign.ProductFeignClient;
+import com.demo.order.interceptor.XTokenRequestInterceptor;
+import com.demo.order.properties.ProductCacheProperties;
+import com.demo.order.service.impl.ReactiveOrderServiceImpl;
+import com.demo.product.bean.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class ReactiveOrderServiceTest {
+
+  private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+  private Function<ClientRequest, Mono<ClientResponse>> upstream;
+  private ReactiveOrderServiceImpl orderService;
+
+  @BeforeEach
+  void setUp() {
+    ProductFeignClient unusedFeignClient = new ProductFeignClient() {
+      @Override
+      public Product getProductById(Long id) {
+        throw new ProductUnavailableException("feign 不应被调用");
+      }
+
+      @Override
+      public List<Product> getProductsByIds(List<Long> ids) {
+        throw new ProductUnavailableException("feign 不应被调用");
+      }
+    };
+    ProductCache productCache = new ProductCache(unusedFeignClient, new ProductCacheProperties(), new SimpleMeterRegistry());
+    WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+      requests.add(request);
+      return upstream.apply(request);
+    });
+    orderService = new ReactiveOrderServiceImpl(builder, new XTokenRequestInterceptor(), productCache);
+  }
+
+  @Test
+  void readsThroughCacheWithToken() {
+    upstream = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .body("{\"id\":7,\"price\":99,\"productName\":\"苹果\",\"num\":2}")
+        .build());
+
+    Order order = orderService.createOrder(7L, 1L).block();
+    assertNotNull(order);
+    assertEquals(new BigDecimal("198"), order.getTotalAmount());
+    assertNotNull(requests.get(0).headers().getFirst(XTokenRequestInterceptor.HEADER));
+
+    // 第二次命中缓存，不再请求
+    orderService.createOrder(7L, 1L).block();
+    assertEquals(1, requests.size());
+  }
+
+  @Test
+  void upstreamErrorDegradesLikeFeignFallback() {
+    upstream = request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+    Order order = orderService.createOrder(8L, 1L).block();
+    assertNotNull(order);
+    assertEquals("未知商品", order.getProductList().get(0).getProductName());
+    assertEquals(0, BigDecimal.ZERO.compareTo(order.getTotalAmount()));
+  }
+}
@@ -0,0 +1,94 @@
+package com.demo.order;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 平台线程 / 虚拟线程两种模式的压测对比
+ * <p>
+ * 1. 启动 service-product、service-order（默认平台线程），执行：
+ * mvn test -pl services/service-order -Dtest=VirtualThreadLoadTest -Dbench.url=http://localhost:8000/order/create?userId=1&productId=1
+ * 2. service-order 加 --spring.threads.virtual.enabled=true 重启后再执行一次，对比各并发档位的 p99 与错误数
+ */
+@EnabledIfSystemProperty(named = "bench.url", matches = ".+")
+public class VirtualThreadLoadTest {
+
+  private static final int[] CONCURRENCY_LEVELS = {50, 200, 500, 1000, 2000};
+
+  @Test
+  void loadTest() throws InterruptedException {
+    URI uri = URI.create(System.getProperty("bench.url"));
+    int requestsPerLevel = Integer.getInteger("bench.requests", 10_000);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      HttpClient client = HttpClient.newBuilder()
+          .executor(executor)
+          .connectTimeout(Duration.ofSeconds(3))
+          .build();
+      HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET().build();
+
+      // 预热
+      run(client, request, executor, 50, 1_000);
+
+      System.out.println("concurrency\trequests\terrors\tthroughput(req/s)\tp50(ms)\tp99(ms)\tmax(ms)");
+      for (int concurrency : CONCURRENCY_LEVELS) {
+        run(client, request, executor, concurrency, requestsPerLevel).print(concurrency);
+      }
+    }
+  }
+
+  private Result run(HttpClient client, HttpRequest request, ExecutorService executor,
+                     int concurrency, int requests) throws InterruptedException {
+    long[] latencies = new long[requests];
+    AtomicInteger errors = new AtomicInteger();
+    Semaphore permits = new Semaphore(concurrency);
+    long start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      int index = i;
+      permits.acquire();
+      executor.execute(() -> {
+        long begin = System.nanoTime();
+        try {
+          HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+          if (response.statusCode() != 200) {
+            errors.incrementAndGet();
+          }
+        } catch (Exception e) {
+          errors.incrementAndGet();
+        } finally {
+          latencies[index] = System.nanoTime() - begin;
+          permits.release();
+        }
+      });
+    }
+    permits.acquire(concurrency);
+    long elapsed = System.nanoTime() - start;
+    Arrays.sort(latencies);
+    return new Result(requests, errors.get(), elapsed, latencies);
+  }
+
+  private record Result(int requests, int errors, long elapsedNanos, long[] sortedLatencies) {
+
+    long percentileMillis(double percentile) {
+      int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+      return Duration.ofNanos(sortedLatencies[Math.max(index, 0)]).toMillis();
+    }
+
+    void print(int concurrency) {
+      double throughput = requests * 1_000_000_000.0 / elapsedNanos;
+      System.out.printf("%d\t%d\t%d\t%.0f\t%d\t%d\t%d%n", concurrency, requests, errors, throughput,
+          percentileMillis(0.50), percentileMillis(0.99), percentileMillis(1.0));
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.demo.product.cache;
+
+import com.demo.product.bean.Product;
+import com.demo.product.properties.ProductCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * 商品二级缓存：一级 Caffeine 本地缓存 + 二级 Redis 共享缓存
+ * <p>
+ * 读：本地 -> Redis -> 数据源，同一个 key 的并发未命中由 Caffeine 合并成一次加载；
+ * 失效：删除 Redis 中的数据并通过 Redisson topic 广播，所有实例收到后删除本地缓存。
+ * Redis 不可用时直接回源，不影响查询。
+ */
+@Slf4j
+@Component
+public class ProductTwoTierCache {
+
+  private static final String KEY_PREFIX = "product:cache:";
+
+  private final RedissonClient redissonClient;
+  private final ProductCacheProperties properties;
+  private final TypedJsonJacksonCodec codec = new TypedJsonJacksonCodec(Product.class);
+  private final Cache<Long, Product> localCache;
+
+  private final Counter redisHits;
+  private final Counter redisMisses;
+  private final Timer redisLatency;
+  private final Timer sourceLatency;
+
+  private RTopic invalidateTopic;
+  private int listenerId;
+
+  public ProductTwoTierCache(RedissonClient redissonClient,
+                             ProductCacheProperties properties,
+                             MeterRegistry meterRegistry) {
+    this.redissonClient = redissonClient;
+    this.properties = properties;
+    this.localCache = Caffeine.newBuilder()
+        .maximumSize(properties.getLocalMaximumSize())
+        .expireAfterWrite(properties.getLocalExpireAfterWrite())
+        .recordStats()
+        .build();
+    // 一级缓存：cache.gets{cache=product.local,result=hit|miss}、cache.load.duration 等
+    CaffeineCacheMetrics.monitor(meterRegistry, localCache, "product.local");
+    // 二级缓存：命中率 = hit / (hit + miss)
+    this.redisHits = Counter.builder("cache.gets").tag("cache", "product.redis").tag("result", "hit")
+        .register(meterRegistry);
+    this.redisMisses = Counter.builder("cache.gets").tag("cache", "product.redis").tag("result", "miss")
+        .register(meterRegistry);
+    this.redisLatency = Timer.builder("cache.load.latency").tag("cache", "product.redis")
+        .publishPercentiles(0.5, 0.99).register(meterRegistry);
+    this.sourceLatency = Timer.builder("cache.load.latency").tag("cache", "product.source")
+        .publishPercentiles(0.5, 0.99).register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void subscribe() {
+    invalidateTopic = redissonClient.getTopic(properties.getInvalidateTopic(), LongCodec.INSTANCE);
+    listenerId = invalidateTopic.addListener(Long.class, (channel, productId) -> {
+      log.debug("收到商品缓存失效广播：{}", productId);
+      localCache.invalidate(productId);
+    });
+  }
+
+  @PreDestroy
+  public void unsubscribe() {
+    invalidateTopic.removeListener(listenerId);
+  }
+
+  public Product get(Long productId, Function<Long, Product> loader) {
+    return localCache.get(productId, id -> loadFromRedis(id, loader));
+  }
+
+  /**
+   * 数据变更后调用：先删 Redis，再广播让所有实例（包括自己）删除本地缓存
+   */
+  public void invalidate(Long productId) {
+    try {
+      bucket(productId).delete();
+      invalidateTopic.publish(productId);
+    } catch (Exception e) {
+      log.warn("商品缓存失效广播失败：{}，{}", productId, e.getMessage());
+    }
+    localCache.invalidate(productId);
+  }
+
+  private Product loadFromRedis(Long productId, Function<Long, Product> loader) {
+    RBucket<Product> bucket = bucket(productId);
+    Product product;
+    try {
+      product = redisLatency.recordCallable(bucket::get);
+    } catch (Exception e) {
+      log.warn("读取 Redis 商品缓存失败，直接回源：{}，{}", productId, e.getMessage());
+      return sourceLatency.record(() -> loader.apply(productId));
+    }
+    if (product != null) {
+      redisHits.increment();
+      return product;
+    }
+    redisMisses.increment();
+    product = sourceLatency.record(() -> loader.apply(productId));
+    if (product != null) {
+      try {
+        bucket.set(product, properties.getRedisTtl());
+      } catch (Exception e) {
+        log.warn("写入 Redis 商品缓存失败：{}，{}", productId, e.getMessage());
+      }
+    }
+    return product;
+  }
+
+  private RBucket<Product> bucket(Long productId) {
+    return redissonClient.getBucket(KEY_PREFIX + productId, codec);
+  }
+
+}
@@ -4,11 +4,18 @@ import com.demo.product.bean.Product;
 import com.demo.product.service.ProductService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
+@Slf4j
 @RestController
 @RequestMapping("/product")
 @RequiredArgsConstructor
@@ -30,4 +37,19 @@ public class ProductController {
 //        }
     return product;
   }
+
+  /**
+   * 批量查询商品，一次请求取回整个订单的商品
+   */
+  @PostMapping("/batch")
+  public List<Product> getProducts(@RequestBody List<Long> productIds) {
+    log.debug("批量查询商品 {} 个", productIds.size());
+    return productService.getProductsByIds(productIds);
+  }
+
+  @DeleteMapping("/{id}/cache")
+  public String evictProduct(@PathVariable("id") Long productId) {
+    productService.evictProduct(productId);
+    return "evict success";
+  }
 }
@@ -0,0 +1,84 @@
+package com.demo.product.lease;
+
+import java.time.Duration;
+
+/**
+ * 某个节点对某个任务的租约
+ * <p>
+ * fencingToken 每次有节点重新获得租约时递增，写入共享资源时带上它，资源方拒绝比已见过的更小的 token，
+ * 即使旧节点在租约过期后还在写也不会覆盖新节点的结果。
+ */
+public final class TaskLease {
+
+  private final String taskName;
+  private final long fencingToken;
+  private final long ttlNanos;
+  private volatile long renewedAtNanos;
+  private volatile long progressAtNanos;
+  private volatile boolean running;
+  private volatile boolean lost;
+
+  TaskLease(String taskName, long fencingToken, Duration ttl) {
+    this.taskName = taskName;
+    this.fencingToken = fencingToken;
+    this.ttlNanos = ttl.toNanos();
+    this.renewedAtNanos = System.nanoTime();
+  }
+
+  public String taskName() {
+    return taskName;
+  }
+
+  public long fencingToken() {
+    return fencingToken;
+  }
+
+  /**
+   * 本地判断租约是否仍然有效：没有丢失，且距离上次续期不超过 2/3 个租期（留出时钟误差和网络延迟）
+   */
+  public boolean isValid() {
+    return !lost && System.nanoTime() - renewedAtNanos < ttlNanos / 3 * 2;
+  }
+
+  /**
+   * 任务执行中调用，表示仍在推进；长时间不调用时看门狗停止续期，让其他节点接手
+   */
+  public void progress() {
+    progressAtNanos = System.nanoTime();
+  }
+
+  /**
+   * 开始执行，由 DistributedTask 调用
+   */
+  public void begin() {
+    progressAtNanos = System.nanoTime();
+    running = true;
+  }
+
+  public void end() {
+    running = false;
+  }
+
+  /**
+   * 空闲时一直续期以便下次复用；执行中只有在一个租期内有进展才续期
+   */
+  boolean shouldRenew(long now) {
+    return !lost && (!running || now - progressAtNanos < ttlNanos);
+  }
+
+  boolean renewDue(long now) {
+    return now - renewedAtNanos >= ttlNanos / 3;
+  }
+
+  long ttlMillis() {
+    return ttlNanos / 1_000_000;
+  }
+
+  void renewed(long now) {
+    renewedAtNanos = now;
+  }
+
+  void lost() {
+    lost = true;
+  }
+}
@@ -0,0 +1,153 @@
+package com.demo.product.lease;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务租约：每个任务一个 Redis key 保存 持有节点:fencing token，另一个 key 单调递增地发放 token
+ * <p>
+ * 节点获得租约后一直持有，由看门狗在每 1/3 个租期续期一次；下一次定时触发时本地租约仍然有效就直接执行，
+ * 不再访问 Redis。执行中的任务长时间没有进展时不再续期，租约到期后由其他节点接手并拿到更大的 token。
+ */
+@Slf4j
+@Component
+public class TaskLeaseManager {
+
+  private static final String KEY_PREFIX = "task:lease:";
+
+  // KEYS: lease, fence；ARGV: node, ttl。已由本节点持有时续期并返回原 token，被其他节点持有时返回 0
+  private static final String ACQUIRE = """
+      local owner = redis.call('GET', KEYS[1])
+      if owner then
+        local split = string.find(owner, ':', 1, true)
+        if string.sub(owner, 1, split - 1) ~= ARGV[1] then return 0 end
+        redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        return tonumber(string.sub(owner, split + 1))
+      end
+      local token = redis.call('INCR', KEYS[2])
+      redis.call('SET', KEYS[1], ARGV[1] .. ':' .. token, 'PX', ARGV[2])
+      return token
+      """;
+
+  // KEYS: lease；ARGV: node:token, ttl
+  private static final String RENEW = """
+      if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+      redis.call('PEXPIRE', KEYS[1], ARGV[2])
+      return 1
+      """;
+
+  // KEYS: lease；ARGV: node:token
+  private static final String RELEASE = """
+      if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+      return redis.call('DEL', KEYS[1])
+      """;
+
+  private final RedissonClient redissonClient;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Map<String, TaskLease> leases = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "task-lease-watchdog");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public TaskLeaseManager(RedissonClient redissonClient) {
+    this.redissonClient = redissonClient;
+    watchdog.scheduleWithFixedDelay(this::renewAll, 1, 1, TimeUnit.SECONDS);
+  }
+
+  /**
+   * 获取任务租约：本地持有且有效时直接返回，否则访问 Redis 抢占
+   *
+   * @return 被其他节点持有时返回 null
+   */
+  public TaskLease acquire(String taskName, Duration ttl) {
+    TaskLease lease = leases.get(taskName);
+    if (lease != null && lease.isValid()) {
+      return lease;
+    }
+    long token = eval(ACQUIRE, List.of(leaseKey(taskName), fenceKey(taskName)), nodeId, ttl.toMillis());
+    if (token == 0) {
+      leases.remove(taskName);
+      return null;
+    }
+    lease = new TaskLease(taskName, token, ttl);
+    leases.put(taskName, lease);
+    return lease;
+  }
+
+  @PreDestroy
+  public void releaseAll() {
+    watchdog.shutdownNow();
+    for (TaskLease lease : leases.values()) {
+      try {
+        eval(RELEASE, List.of(leaseKey(lease.taskName())), owner(lease));
+      } catch (Exception e) {
+        log.warn("释放任务租约失败：{}，{}", lease.taskName(), e.getMessage());
+      }
+    }
+    leases.clear();
+  }
+
+  private void renewAll() {
+    long now = System.nanoTime();
+    for (TaskLease lease : leases.values()) {
+      if (!lease.renewDue(now)) {
+        continue;
+      }
+      if (!lease.shouldRenew(now)) {
+        log.warn("任务 {} 长时间没有进展，停止续期，token：{}", lease.taskName(), lease.fencingToken());
+        lease.lost();
+        leases.remove(lease.taskName(), lease);
+        continue;
+      }
+      try {
+        if (eval(RENEW, List.of(leaseKey(lease.taskName())), owner(lease), lease.ttlMillis()) == 1) {
+          lease.renewed(now);
+        } else {
+          log.warn("任务 {} 的租约已被其他节点接手，token：{}", lease.taskName(), lease.fencingToken());
+          lease.lost();
+          leases.remove(lease.taskName(), lease);
+        }
+      } catch (Exception e) {
+        // 续期失败不立即放弃，租约在本地超过 2/3 租期后自然失效
+        log.warn("续期任务租约失败：{}，{}", lease.taskName(), e.getMessage());
+      }
+    }
+  }
+
+  private long eval(String script, List<Object> keys, Object... args) {
+    Object[] values = new Object[args.length];
+    for (int i = 0; i < args.length; i++) {
+      values[i] = String.valueOf(args[i]);
+    }
+    Long result = redissonClient.getScript(StringCodec.INSTANCE)
+        .eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.INTEGER, keys, values);
+    return result == null ? 0 : result;
+  }
+
+  private String owner(TaskLease lease) {
+    return nodeId + ":" + lease.fencingToken();
+  }
+
+  private static String leaseKey(String taskName) {
+    return KEY_PREFIX + "{" + taskName + "}";
+  }
+
+  private static String fenceKey(String taskName) {
+    return leaseKey(taskName) + ":fence";
+  }
+}
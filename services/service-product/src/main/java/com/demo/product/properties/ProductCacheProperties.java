@@ -0,0 +1,33 @@
+package com.demo.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "product.cache")
+@Data
+public class ProductCacheProperties {
+
+  /**
+   * 一级缓存（本地堆内）最多缓存的商品数量
+   */
+  long localMaximumSize = 10_000;
+
+  /**
+   * 一级缓存过期时间，兜底广播丢失的情况，不宜过长
+   */
+  Duration localExpireAfterWrite = Duration.ofMinutes(1);
+
+  /**
+   * 二级缓存（Redis）过期时间
+   */
+  Duration redisTtl = Duration.ofMinutes(30);
+
+  /**
+   * 缓存失效广播的 topic
+   */
+  String invalidateTopic = "product:cache:invalidate";
+}
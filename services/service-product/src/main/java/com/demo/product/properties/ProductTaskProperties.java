@@ -0,0 +1,21 @@
+package com.demo.product.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "product.task")
+@Data
+public class ProductTaskProperties {
+
+  /**
+   * 按商品 id 分片，所有节点各自更新一部分；关闭时由持有租约的单个节点更新全部
+   */
+  boolean sharded = false;
+
+  /**
+   * 需要更新库存的商品 id 范围 [1, productCount]
+   */
+  long productCount = 10_000;
+}
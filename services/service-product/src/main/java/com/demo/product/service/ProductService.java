@@ -2,6 +2,18 @@ package com.demo.product.service;
 
 import com.demo.product.bean.Product;
 
+import java.util.List;
+
 public interface ProductService {
     Product getProductById(Long productId);
+
+    /**
+     * 批量查询商品，返回顺序与入参一致
+     */
+    List<Product> getProductsByIds(List<Long> productIds);
+
+    /**
+     * 商品数据变更后清除所有实例上的缓存
+     */
+    void evictProduct(Long productId);
 }
@@ -1,9 +1,29 @@
 package com.demo.product.service;
 
+import java.util.Collection;
+
 public interface RedisLockService {
 
   boolean tryLock(String lockKey, long leaseSeconds);
 
   void unlock(String lockKey);
 
+  /**
+   * 一次往返同时锁住多个 key，要么全部成功要么一个都不加；可重入，与 tryLock 加的锁互斥
+   *
+   * @param leaseSeconds 锁的租期，必须为正数；多 key 锁没有看门狗续期
+   * @throws IllegalArgumentException leaseSeconds 不是正数
+   */
+  boolean tryLockAll(Collection<String> lockKeys, long leaseSeconds);
+
+  void unlockAll(Collection<String> lockKeys);
+
+  boolean tryReadLock(String lockKey, long leaseSeconds);
+
+  void unlockRead(String lockKey);
+
+  boolean tryWriteLock(String lockKey, long leaseSeconds);
+
+  void unlockWrite(String lockKey);
+
 }
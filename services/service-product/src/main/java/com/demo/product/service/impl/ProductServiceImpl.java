@@ -1,16 +1,38 @@
 package com.demo.product.service.impl;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import com.demo.product.bean.Product;
+import com.demo.product.cache.ProductTwoTierCache;
 import com.demo.product.service.ProductService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+  private final ProductTwoTierCache productCache;
+
   @Override
   public Product getProductById(Long productId) {
+    return productCache.get(productId, this::loadProduct);
+  }
+
+  @Override
+  public List<Product> getProductsByIds(List<Long> productIds) {
+    return productIds.stream()
+        .map(this::getProductById)
+        .toList();
+  }
+
+  @Override
+  public void evictProduct(Long productId) {
+    productCache.invalidate(productId);
+  }
+
+  private Product loadProduct(Long productId) {
     Product product = new Product();
     product.setId(productId);
     product.setPrice(new BigDecimal("99"));
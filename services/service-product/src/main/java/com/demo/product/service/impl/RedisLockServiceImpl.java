@@ -1,22 +1,126 @@
 package com.demo.product.service.impl;
 
 import com.demo.product.service.RedisLockService;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.redisson.api.RLock;
+import org.redisson.api.RReadWriteLock;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * 分布式锁
+ * <p>
+ * RLock / RReadWriteLock 句柄按 key 缓存，不再每次 getLock 新建。多 key 加锁用一个 Lua 脚本完成，
+ * 数据结构与 Redisson 的 RLock 相同（hash 字段 客户端id:线程id -> 重入次数），和单 key 的锁互斥且可重入；
+ * key 排序去重后再传入，保证所有调用方的加锁顺序一致。脚本一次操作多个 key，只适用于单机 / 哨兵模式的 Redis。
+ */
 @Service
-@RequiredArgsConstructor
 public class RedisLockServiceImpl implements RedisLockService {
 
+  // KEYS: 锁；ARGV: lease, lockName
+  private static final String LOCK_ALL = """
+      for i = 1, #KEYS do
+        if redis.call('exists', KEYS[i]) == 1 and redis.call('hexists', KEYS[i], ARGV[2]) == 0 then
+          return 0
+        end
+      end
+      for i = 1, #KEYS do
+        redis.call('hincrby', KEYS[i], ARGV[2], 1)
+        redis.call('pexpire', KEYS[i], ARGV[1])
+      end
+      return 1
+      """;
+
+  // KEYS: n 个锁 + n 个解锁通知 channel；ARGV: lockName, n。完全释放时通知在 RLock 上等待的线程
+  private static final String UNLOCK_ALL = """
+      local n = tonumber(ARGV[2])
+      for i = 1, n do
+        if redis.call('hexists', KEYS[i], ARGV[1]) == 1 and redis.call('hincrby', KEYS[i], ARGV[1], -1) <= 0 then
+          redis.call('del', KEYS[i])
+          redis.call('publish', KEYS[n + i], 0)
+        end
+      end
+      return 1
+      """;
+
   private final RedissonClient redissonClient;
+  private final Cache<String, RLock> locks = handleCache();
+  private final Cache<String, RReadWriteLock> readWriteLocks = handleCache();
+
+  public RedisLockServiceImpl(RedissonClient redissonClient) {
+    this.redissonClient = redissonClient;
+  }
 
   @Override
   public boolean tryLock(String lockKey, long leaseSeconds) {
-    RLock lock = redissonClient.getLock(lockKey);
+    return tryLock(lock(lockKey), leaseSeconds);
+  }
+
+  @Override
+  public void unlock(String lockKey) {
+    unlock(lock(lockKey));
+  }
+
+  @Override
+  public boolean tryLockAll(Collection<String> lockKeys, long leaseSeconds) {
+    if (leaseSeconds <= 0) {
+      throw new IllegalArgumentException("leaseSeconds 必须为正数：" + leaseSeconds);
+    }
+    List<Object> keys = new ArrayList<>(new TreeSet<>(lockKeys));
+    if (keys.isEmpty()) {
+      return true;
+    }
+    Long locked = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, LOCK_ALL,
+        RScript.ReturnType.INTEGER, keys, String.valueOf(TimeUnit.SECONDS.toMillis(leaseSeconds)), lockName());
+    return locked != null && locked == 1;
+  }
+
+  @Override
+  public void unlockAll(Collection<String> lockKeys) {
+    TreeSet<String> sorted = new TreeSet<>(lockKeys);
+    if (sorted.isEmpty()) {
+      return;
+    }
+    List<Object> keys = new ArrayList<>(sorted.size() * 2);
+    keys.addAll(sorted);
+    for (String lockKey : sorted) {
+      keys.add(channelName(lockKey));
+    }
+    redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, UNLOCK_ALL,
+        RScript.ReturnType.INTEGER, keys, lockName(), String.valueOf(sorted.size()));
+  }
+
+  @Override
+  public boolean tryReadLock(String lockKey, long leaseSeconds) {
+    return tryLock(readWriteLock(lockKey).readLock(), leaseSeconds);
+  }
+
+  @Override
+  public void unlockRead(String lockKey) {
+    unlock(readWriteLock(lockKey).readLock());
+  }
+
+  @Override
+  public boolean tryWriteLock(String lockKey, long leaseSeconds) {
+    return tryLock(readWriteLock(lockKey).writeLock(), leaseSeconds);
+  }
+
+  @Override
+  public void unlockWrite(String lockKey) {
+    unlock(readWriteLock(lockKey).writeLock());
+  }
+
+  private static boolean tryLock(RLock lock, long leaseSeconds) {
     try {
       return lock.tryLock(0, leaseSeconds, TimeUnit.SECONDS);
     } catch (InterruptedException e) {
@@ -25,12 +129,41 @@ public class RedisLockServiceImpl implements RedisLockService {
     }
   }
 
-  @Override
-  public void unlock(String lockKey) {
-    RLock lock = redissonClient.getLock(lockKey);
-    if (lock.isHeldByCurrentThread()) {
+  /**
+   * 直接解锁，不是当前线程持有时忽略；省去先查询 isHeldByCurrentThread 的一次往返
+   */
+  private static void unlock(RLock lock) {
+    try {
       lock.unlock();
+    } catch (IllegalMonitorStateException ignored) {
+      // 锁已过期或由其他线程持有
     }
   }
 
+  private RLock lock(String lockKey) {
+    return locks.get(lockKey, redissonClient::getLock);
+  }
+
+  private RReadWriteLock readWriteLock(String lockKey) {
+    return readWriteLocks.get(lockKey, redissonClient::getReadWriteLock);
+  }
+
+  /**
+   * 与 Redisson RLock 相同的持有者标识
+   */
+  private String lockName() {
+    return redissonClient.getId() + ":" + Thread.currentThread().threadId();
+  }
+
+  private static String channelName(String lockKey) {
+    return lockKey.contains("{") ? "redisson_lock__channel:" + lockKey : "redisson_lock__channel:{" + lockKey + "}";
+  }
+
+  private static <V> Cache<String, V> handleCache() {
+    return Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterAccess(Duration.ofMinutes(10))
+        .build();
+  }
+
 }
@@ -0,0 +1,63 @@
+package com.demo.product.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一致性哈希环：每个节点放 virtualNodes 个虚拟节点，key 归属于顺时针方向的第一个虚拟节点
+ * <p>
+ * 节点加入或离开时只有相邻区间的 key 迁移，约 1/N 的 key 换主人。不可变，成员变化时重新构建。
+ */
+public final class ConsistentHashRing {
+
+  private final TreeMap<Long, String> ring = new TreeMap<>();
+  private final List<String> members;
+
+  public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+    this.members = List.copyOf(members);
+    for (String member : this.members) {
+      for (int i = 0; i < virtualNodes; i++) {
+        ring.put(hash(member + "#" + i), member);
+      }
+    }
+  }
+
+  public List<String> members() {
+    return members;
+  }
+
+  public String owner(long key) {
+    if (ring.isEmpty()) {
+      return null;
+    }
+    Map.Entry<Long, String> entry = ring.ceilingEntry(mix(key));
+    return (entry == null ? ring.firstEntry() : entry).getValue();
+  }
+
+  /**
+   * FNV-1a，再经过 mix 打散
+   */
+  static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * MurmurHash3 的 fmix64，连续的商品 id 也能均匀分布在环上
+   */
+  static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
@@ -0,0 +1,18 @@
+package com.demo.product.shard;
+
+/**
+ * 本节点在当前成员视图下负责的分片
+ *
+ * @param self 本节点，host:port
+ * @param ring 当前成员构成的哈希环
+ */
+public record ShardAssignment(String self, ConsistentHashRing ring) {
+
+  public boolean owns(long key) {
+    return self.equals(ring.owner(key));
+  }
+
+  public int memberCount() {
+    return ring.members().size();
+  }
+}
@@ -0,0 +1,64 @@
+package com.demo.product.shard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 根据 Nacos 中当前在线的实例划分分片
+ * <p>
+ * 成员列表取自 Nacos 客户端本地订阅的实例缓存，不额外访问注册中心；成员变化时重建哈希环，
+ * 节点加入或下线后下一次执行自动重新分配。各节点看到成员变化的时间有先后，
+ * 变化期间同一个 key 可能被两个节点处理或本轮没有节点处理，分片任务需要可以重复执行。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardCoordinator {
+
+  private static final int VIRTUAL_NODES = 160;
+
+  private final DiscoveryClient discoveryClient;
+  private final ObjectProvider<Registration> registration;
+
+  private volatile ShardAssignment current;
+
+  public ShardAssignment assignment() {
+    Registration self = registration.getIfAvailable();
+    if (self == null) {
+      // 没有注册到注册中心（例如本地调试），单节点处理全部
+      return cached("local", List.of("local"));
+    }
+    String selfKey = key(self);
+    TreeSet<String> members = new TreeSet<>();
+    members.add(selfKey);
+    for (ServiceInstance instance : discoveryClient.getInstances(self.getServiceId())) {
+      members.add(key(instance));
+    }
+    return cached(selfKey, members);
+  }
+
+  private ShardAssignment cached(String self, Collection<String> members) {
+    ShardAssignment assignment = current;
+    if (assignment != null && assignment.self().equals(self)
+        && assignment.ring().members().equals(List.copyOf(members))) {
+      return assignment;
+    }
+    assignment = new ShardAssignment(self, new ConsistentHashRing(members, VIRTUAL_NODES));
+    log.info("分片成员变化，共 {} 个节点：{}", members.size(), members);
+    current = assignment;
+    return assignment;
+  }
+
+  private static String key(ServiceInstance instance) {
+    return instance.getHost() + ":" + instance.getPort();
+  }
+}
@@ -1,6 +1,7 @@
 package com.demo.product.task;
 
-import com.demo.product.service.RedisLockService;
+import com.demo.product.lease.TaskLease;
+import com.demo.product.lease.TaskLeaseManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -10,27 +11,31 @@ import java.time.Duration;
 @RequiredArgsConstructor
 public abstract class DistributedTask {
 
-  private final RedisLockService redisLockService;
+  private final TaskLeaseManager taskLeaseManager;
 
   public abstract String taskName();
 
-  public abstract Duration lockDuration(); // 任务最大执行时间
+  public abstract Duration lockDuration(); // 租约时长，执行期间只要有进展就由看门狗续期
 
-  public abstract void doExecute();
+  /**
+   * @param lease 当前租约，写共享资源时带上 fencingToken，长任务中定期调用 progress()
+   */
+  public abstract void doExecute(TaskLease lease);
 
   public void run() {
-    String lockKey = "lock:task:" + taskName();
-    boolean locked = redisLockService.tryLock(lockKey, lockDuration().getSeconds());
-    if (!locked) {
+    // 上一次触发后本节点仍持有租约时直接复用，不访问 Redis
+    TaskLease lease = taskLeaseManager.acquire(taskName(), lockDuration());
+    if (lease == null) {
       log.info("任务已锁定：{}", taskName());
       return;
     }
+    lease.begin();
     try {
-      doExecute();
+      doExecute(lease);
     } catch (Exception e) {
       log.error("任务执行异常：{}", e.getMessage());
     } finally {
-      redisLockService.unlock(lockKey);
+      lease.end();
     }
   }
 
@@ -1,16 +1,26 @@
 package com.demo.product.task;
 
-import com.demo.product.service.RedisLockService;
+import com.demo.product.lease.TaskLease;
+import com.demo.product.lease.TaskLeaseManager;
+import com.demo.product.properties.ProductTaskProperties;
+import com.demo.product.shard.ShardAssignment;
+import com.demo.product.shard.ShardCoordinator;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 
+@Slf4j
 @Component
-public class ProductTask extends DistributedTask {
+public class ProductTask extends ShardedTask {
 
-  public ProductTask(RedisLockService redisLockService) {
-    super(redisLockService);
+  private final ProductTaskProperties properties;
+
+  public ProductTask(TaskLeaseManager taskLeaseManager, ShardCoordinator shardCoordinator,
+                     ProductTaskProperties properties) {
+    super(taskLeaseManager, shardCoordinator);
+    this.properties = properties;
   }
 
   @Override
@@ -20,12 +30,43 @@ public class ProductTask extends DistributedTask {
 
   @Override
   public Duration lockDuration() {
-    return Duration.ofSeconds(55);
+    return Duration.ofSeconds(30);
   }
 
   @Override
-  public void doExecute() {
-    System.out.println("正在更新产品库存...");
+  public boolean sharded() {
+    return properties.isSharded();
+  }
+
+  @Override
+  public void doExecute(TaskLease lease) {
+    log.info("正在更新产品库存...token={}", lease.fencingToken());
+    for (long productId = 1; productId <= properties.getProductCount(); productId++) {
+      // 租约失效后其他节点可能已经接手，不再继续写
+      if (!lease.isValid()) {
+        log.warn("任务租约已失效，停止更新产品库存，已处理到商品 {}，token={}", productId - 1, lease.fencingToken());
+        return;
+      }
+      refreshStock(productId);
+      lease.progress();
+    }
+  }
+
+  @Override
+  public void doExecuteShard(ShardAssignment shard) {
+    int refreshed = 0;
+    for (long productId = 1; productId <= properties.getProductCount(); productId++) {
+      if (shard.owns(productId)) {
+        refreshStock(productId);
+        refreshed++;
+      }
+    }
+    log.info("正在更新产品库存...本节点 {} 负责 {}/{} 个商品，共 {} 个节点",
+        shard.self(), refreshed, properties.getProductCount(), shard.memberCount());
+  }
+
+  private void refreshStock(long productId) {
+    log.debug("更新商品 {} 的库存", productId);
   }
 
   @Scheduled(cron = "0 * * * * ?")
@@ -0,0 +1,47 @@
+package com.demo.product.task;
+
+import com.demo.product.lease.TaskLeaseManager;
+import com.demo.product.shard.ShardAssignment;
+import com.demo.product.shard.ShardCoordinator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 支持分片执行的任务：开启分片时所有在线节点同时执行，各自只处理分配给自己的部分，不再争抢租约；
+ * 关闭时和普通任务一样由持有租约的单个节点执行 doExecute
+ */
+@Slf4j
+public abstract class ShardedTask extends DistributedTask {
+
+  private final ShardCoordinator shardCoordinator;
+
+  protected ShardedTask(TaskLeaseManager taskLeaseManager, ShardCoordinator shardCoordinator) {
+    super(taskLeaseManager);
+    this.shardCoordinator = shardCoordinator;
+  }
+
+  /**
+   * 是否按分片执行，默认关闭，由子类按配置开启
+   */
+  public boolean sharded() {
+    return false;
+  }
+
+  /**
+   * 分片模式下执行，只处理 {@link ShardAssignment#owns} 为 true 的数据
+   */
+  public abstract void doExecuteShard(ShardAssignment shard);
+
+  @Override
+  public void run() {
+    if (!sharded()) {
+      super.run();
+      return;
+    }
+    try {
+      doExecuteShard(shardCoordinator.assignment());
+    } catch (Exception e) {
+      log.error("任务分片执行异常：{}", e.getMessage());
+    }
+  }
+
+}
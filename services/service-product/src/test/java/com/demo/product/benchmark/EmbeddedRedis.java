@@ -0,0 +1,40 @@
+package com.demo.product.benchmark;
+
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * 内嵌 Redis：在随机端口启动 embedded-redis 自带的 redis-server，并连上一个 Redisson 客户端
+ */
+public final class EmbeddedRedis implements AutoCloseable {
+
+  private final RedisServer server;
+  private final RedissonClient client;
+
+  public EmbeddedRedis() throws IOException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    server = RedisServer.newRedisServer().port(port).setting("save \"\"").build();
+    server.start();
+    Config config = new Config();
+    config.useSingleServer().setAddress("redis://127.0.0.1:" + port);
+    client = Redisson.create(config);
+  }
+
+  public RedissonClient client() {
+    return client;
+  }
+
+  @Override
+  public void close() throws IOException {
+    client.shutdown();
+    server.stop();
+  }
+}
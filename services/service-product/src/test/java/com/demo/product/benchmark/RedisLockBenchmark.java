@@ -0,0 +1,91 @@
+package com.demo.product.benchmark;
+
+import com.demo.product.service.RedisLockService;
+import com.demo.product.service.impl.RedisLockServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 加锁 + 解锁一组商品的吞吐（组/秒），对比逐个加锁与一次 Lua 批量加锁；Redis 为内嵌的 redis-server
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class RedisLockBenchmark {
+
+  @Param({"1", "5", "20"})
+  public int keys;
+
+  private EmbeddedRedis redis;
+  private RedisLockService lockService;
+
+  @State(Scope.Thread)
+  public static class Keys {
+
+    private static int nextThread;
+    private List<String> lockKeys;
+
+    @Setup
+    public void setUp(RedisLockBenchmark benchmark) {
+      int thread;
+      synchronized (Keys.class) {
+        thread = nextThread++;
+      }
+      lockKeys = new ArrayList<>(benchmark.keys);
+      for (int i = 0; i < benchmark.keys; i++) {
+        lockKeys.add("lock:product:" + thread + ":" + i);
+      }
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    redis = new EmbeddedRedis();
+    lockService = new RedisLockServiceImpl(redis.client());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    redis.close();
+  }
+
+  @Benchmark
+  public boolean oneByOne(Keys state) {
+    boolean locked = true;
+    for (String lockKey : state.lockKeys) {
+      locked &= lockService.tryLock(lockKey, 30);
+    }
+    for (String lockKey : state.lockKeys) {
+      lockService.unlock(lockKey);
+    }
+    return locked;
+  }
+
+  @Benchmark
+  public boolean all(Keys state) {
+    boolean locked = lockService.tryLockAll(state.lockKeys, 30);
+    lockService.unlockAll(state.lockKeys);
+    return locked;
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+        .include(RedisLockBenchmark.class.getSimpleName())
+        .warmupIterations(2)
+        .measurementIterations(3)
+        .threads(4)
+        .forks(1)
+        .build()).run();
+  }
+}
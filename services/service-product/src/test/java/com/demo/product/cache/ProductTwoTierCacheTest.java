@@ -0,0 +1,130 @@
+package com.demo.product.cache;
+
+import com.demo.product.bean.Product;
+import com.demo.product.benchmark.EmbeddedRedis;
+import com.demo.product.properties.ProductCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ProductTwoTierCacheTest {
+
+  private static EmbeddedRedis redis;
+
+  // 共享同一个 Redis 的两个实例
+  private ProductTwoTierCache instanceA;
+  private ProductTwoTierCache instanceB;
+  private SimpleMeterRegistry metricsB;
+  private final AtomicInteger loads = new AtomicInteger();
+  private volatile String price = "99";
+
+  @BeforeAll
+  static void start() throws Exception {
+    redis = new EmbeddedRedis();
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    redis.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    redis.client().getKeys().flushall();
+    instanceA = newCache(new SimpleMeterRegistry());
+    metricsB = new SimpleMeterRegistry();
+    instanceB = newCache(metricsB);
+  }
+
+  @AfterEach
+  void tearDown() {
+    instanceA.unsubscribe();
+    instanceB.unsubscribe();
+  }
+
+  @Test
+  void localMissIsServedFromRedis() {
+    assertEquals(new BigDecimal("99"), instanceA.get(1L, loader()).getPrice());
+    assertEquals(1, loads.get());
+
+    // B 本地没有，从 Redis 取到 A 写入的数据，不回源
+    assertEquals(new BigDecimal("99"), instanceB.get(1L, loader()).getPrice());
+    assertEquals(1, loads.get());
+    assertEquals(1, metricsB.get("cache.gets").tag("cache", "product.redis").tag("result", "hit").counter().count());
+
+    // 之后命中本地缓存，不再访问 Redis
+    instanceB.get(1L, loader());
+    assertEquals(1, metricsB.get("cache.gets").tag("cache", "product.redis").tag("result", "hit").counter().count());
+  }
+
+  @Test
+  void invalidateIsBroadcastToOtherInstances() throws Exception {
+    instanceA.get(1L, loader());
+    instanceB.get(1L, loader());
+    assertEquals(1, loads.get());
+    assertEquals(1, localSizeB());
+
+    instanceA.invalidate(1L);
+    awaitLocalEviction();
+
+    instanceB.get(1L, loader());
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void writeFollowedByInvalidateServesNewValueEverywhere() throws Exception {
+    instanceA.get(1L, loader());
+    instanceB.get(1L, loader());
+
+    price = "199";
+    instanceA.invalidate(1L);
+    assertFalse(redis.client().getBucket("product:cache:1").isExists());
+    awaitLocalEviction();
+
+    assertEquals(new BigDecimal("199"), instanceA.get(1L, loader()).getPrice());
+    assertEquals(new BigDecimal("199"), instanceB.get(1L, loader()).getPrice());
+    assertEquals(2, loads.get());
+  }
+
+  private ProductTwoTierCache newCache(SimpleMeterRegistry meterRegistry) {
+    ProductTwoTierCache cache = new ProductTwoTierCache(redis.client(), new ProductCacheProperties(), meterRegistry);
+    cache.subscribe();
+    return cache;
+  }
+
+  private Function<Long, Product> loader() {
+    return id -> {
+      loads.incrementAndGet();
+      Product product = new Product();
+      product.setId(id);
+      product.setPrice(new BigDecimal(price));
+      product.setProductName("苹果-" + id);
+      return product;
+    };
+  }
+
+  /**
+   * 广播是异步的：等到 B 的本地缓存条数归零
+   */
+  private void awaitLocalEviction() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (localSizeB() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, localSizeB());
+  }
+
+  private double localSizeB() {
+    return metricsB.get("cache.size").tag("cache", "product.local").gauge().value();
+  }
+}
@@ -0,0 +1,107 @@
+package com.demo.product.lease;
+
+import com.demo.product.benchmark.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskLeaseManagerTest {
+
+  private static EmbeddedRedis redis;
+
+  private TaskLeaseManager nodeA;
+  private TaskLeaseManager nodeB;
+
+  @BeforeAll
+  static void start() throws Exception {
+    redis = new EmbeddedRedis();
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    redis.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    redis.client().getKeys().flushall();
+    nodeA = new TaskLeaseManager(redis.client());
+    nodeB = new TaskLeaseManager(redis.client());
+  }
+
+  @AfterEach
+  void tearDown() {
+    nodeA.releaseAll();
+    nodeB.releaseAll();
+  }
+
+  @Test
+  void acquireExcludesOtherNodes() {
+    TaskLease lease = nodeA.acquire("task", Duration.ofSeconds(30));
+
+    assertNotNull(lease);
+    assertEquals(1, lease.fencingToken());
+    assertTrue(lease.isValid());
+    assertNull(nodeB.acquire("task", Duration.ofSeconds(30)));
+  }
+
+  @Test
+  void reusesLocalLeaseWithoutRedis() {
+    TaskLease first = nodeA.acquire("task", Duration.ofSeconds(30));
+    // 删掉 Redis 中的租约：再次获取时如果访问了 Redis 会重新抢占并拿到新的租约对象
+    redis.client().getBucket("task:lease:{task}", StringCodec.INSTANCE).delete();
+
+    assertSame(first, nodeA.acquire("task", Duration.ofSeconds(30)));
+  }
+
+  @Test
+  void takeoverGetsHigherToken() {
+    TaskLease first = nodeA.acquire("task", Duration.ofSeconds(30));
+    // 模拟租约在 Redis 中过期
+    redis.client().getBucket("task:lease:{task}", StringCodec.INSTANCE).delete();
+
+    TaskLease takeover = nodeB.acquire("task", Duration.ofSeconds(30));
+
+    assertNotNull(takeover);
+    assertTrue(takeover.fencingToken() > first.fencingToken());
+  }
+
+  @Test
+  void stopsRenewingOnceProgressStalls() throws Exception {
+    TaskLease stalled = nodeA.acquire("task", Duration.ofSeconds(3));
+    TaskLease progressing = nodeA.acquire("other", Duration.ofSeconds(3));
+    stalled.begin();
+    progressing.begin();
+
+    // 看门狗每秒检查一次：超过一个租期没有进展后标记失效，不再续期；有进展的租约一直续期
+    long deadline = System.currentTimeMillis() + 6000;
+    while (stalled.isValid() && System.currentTimeMillis() < deadline) {
+      progressing.progress();
+      Thread.sleep(50);
+    }
+    assertFalse(stalled.isValid());
+    assertTrue(progressing.isValid());
+    assertNull(nodeB.acquire("other", Duration.ofSeconds(3)));
+
+    deadline = System.currentTimeMillis() + 5000;
+    TaskLease takeover;
+    while ((takeover = nodeB.acquire("task", Duration.ofSeconds(30))) == null
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertNotNull(takeover);
+    assertTrue(takeover.fencingToken() > stalled.fencingToken());
+  }
+}
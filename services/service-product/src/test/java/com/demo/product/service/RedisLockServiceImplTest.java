@@ -0,0 +1,89 @@
+package com.demo.product.service;
+
+import com.demo.product.benchmark.EmbeddedRedis;
+import com.demo.product.service.impl.RedisLockServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisLockServiceImplTest {
+
+  private static EmbeddedRedis redis;
+  private static RedisLockService lockService;
+
+  @BeforeAll
+  static void start() throws Exception {
+    redis = new EmbeddedRedis();
+    lockService = new RedisLockServiceImpl(redis.client());
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    redis.close();
+  }
+
+  @Test
+  void multiKeyLockIsAllOrNothingAndExcludesSingleLocks() {
+    assertTrue(lockService.tryLock("lock:product:2", 30));
+
+    // 另一个线程：p2 被占用，整组都加不上，p1 也不会被锁住
+    assertFalse(inOtherThread(() -> lockService.tryLockAll(List.of("lock:product:1", "lock:product:2"), 30)));
+    assertTrue(inOtherThread(() -> {
+      boolean locked = lockService.tryLock("lock:product:1", 30);
+      lockService.unlock("lock:product:1");
+      return locked;
+    }));
+
+    // 同一线程可重入
+    assertTrue(lockService.tryLockAll(List.of("lock:product:2", "lock:product:1"), 30));
+    lockService.unlockAll(List.of("lock:product:1", "lock:product:2"));
+    assertFalse(inOtherThread(() -> lockService.tryLock("lock:product:2", 30)));
+
+    lockService.unlock("lock:product:2");
+    assertTrue(inOtherThread(() -> {
+      boolean locked = lockService.tryLockAll(List.of("lock:product:1", "lock:product:2"), 30);
+      lockService.unlockAll(List.of("lock:product:1", "lock:product:2"));
+      return locked;
+    }));
+  }
+
+  @Test
+  void multiKeyLockRejectsNonPositiveLease() {
+    assertThrows(IllegalArgumentException.class, () -> lockService.tryLockAll(List.of("lock:product:3"), 0));
+    assertThrows(IllegalArgumentException.class, () -> lockService.tryLockAll(List.of("lock:product:3"), -1));
+    assertTrue(inOtherThread(() -> {
+      boolean locked = lockService.tryLock("lock:product:3", 30);
+      lockService.unlock("lock:product:3");
+      return locked;
+    }));
+  }
+
+  @Test
+  void readLocksShareAndWriteLockExcludes() {
+    assertTrue(lockService.tryReadLock("lock:rw", 30));
+    assertTrue(inOtherThread(() -> {
+      boolean locked = lockService.tryReadLock("lock:rw", 30);
+      lockService.unlockRead("lock:rw");
+      return locked;
+    }));
+    assertFalse(inOtherThread(() -> lockService.tryWriteLock("lock:rw", 30)));
+    lockService.unlockRead("lock:rw");
+    assertTrue(inOtherThread(() -> {
+      boolean locked = lockService.tryWriteLock("lock:rw", 30);
+      lockService.unlockWrite("lock:rw");
+      return locked;
+    }));
+  }
+
+  private static boolean inOtherThread(Supplier<Boolean> action) {
+    return CompletableFuture.supplyAsync(action).join();
+  }
+}
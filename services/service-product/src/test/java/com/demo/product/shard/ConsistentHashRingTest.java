@@ -0,0 +1,44 @@
+package com.demo.product.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+  private static final int KEYS = 100_000;
+
+  @Test
+  void spreadsKeysEvenly() {
+    ConsistentHashRing ring = new ConsistentHashRing(List.of("a:1", "b:1", "c:1", "d:1"), 160);
+    Map<String, Integer> counts = new HashMap<>();
+    for (long key = 1; key <= KEYS; key++) {
+      counts.merge(ring.owner(key), 1, Integer::sum);
+    }
+    assertEquals(4, counts.size());
+    for (int count : counts.values()) {
+      // 每个节点期望 25%，允许 ±5 个百分点
+      assertTrue(Math.abs(count - KEYS / 4) < KEYS / 20, "分布不均：" + counts);
+    }
+  }
+
+  @Test
+  void joiningNodeOnlyTakesKeysFromOthers() {
+    ConsistentHashRing before = new ConsistentHashRing(List.of("a:1", "b:1", "c:1"), 160);
+    ConsistentHashRing after = new ConsistentHashRing(List.of("a:1", "b:1", "c:1", "d:1"), 160);
+    int moved = 0;
+    for (long key = 1; key <= KEYS; key++) {
+      String owner = after.owner(key);
+      if (!owner.equals(before.owner(key))) {
+        assertEquals("d:1", owner);
+        moved++;
+      }
+    }
+    assertTrue(moved > KEYS / 5 && moved < KEYS * 3 / 10, "迁移数量：" + moved);
+  }
+}
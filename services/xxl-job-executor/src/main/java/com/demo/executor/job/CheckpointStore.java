@@ -0,0 +1,38 @@
+package com.demo.executor.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * 分片检查点：保存在任务库的 job_checkpoint_tbl，按任务名和分片序号 / 分片总数区分，内容是已经连续处理完的 id 上界
+ * <p>
+ * 检查点不依赖执行器本机，分片被调度到其他执行器时也能继续；分片总数变化后分片范围不同，按新的分片从头处理。
+ */
+@Component
+@RequiredArgsConstructor
+public class CheckpointStore {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public OptionalLong load(String job, int shardIndex, int shardTotal) {
+    List<Long> positions = jdbcTemplate.queryForList(
+        "select position from job_checkpoint_tbl where job_name = ? and shard_index = ? and shard_total = ?",
+        Long.class, job, shardIndex, shardTotal);
+    return positions.isEmpty() ? OptionalLong.empty() : OptionalLong.of(positions.getFirst());
+  }
+
+  public void save(String job, int shardIndex, int shardTotal, long position) {
+    jdbcTemplate.update("insert into job_checkpoint_tbl (job_name, shard_index, shard_total, position) values (?, ?, ?, ?)"
+            + " on duplicate key update position = values(position)",
+        job, shardIndex, shardTotal, position);
+  }
+
+  public void clear(String job, int shardIndex, int shardTotal) {
+    jdbcTemplate.update("delete from job_checkpoint_tbl where job_name = ? and shard_index = ? and shard_total = ?",
+        job, shardIndex, shardTotal);
+  }
+}
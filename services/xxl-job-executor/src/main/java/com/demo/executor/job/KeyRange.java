@@ -0,0 +1,25 @@
+package com.demo.executor.job;
+
+/**
+ * id 范围 [from, to)
+ */
+public record KeyRange(long from, long to) {
+
+  public KeyRange {
+    if (to < from) {
+      throw new IllegalArgumentException("范围不合法：[" + from + ", " + to + ")");
+    }
+  }
+
+  public long size() {
+    return to - from;
+  }
+
+  /**
+   * 均分成 total 份后的第 index 份，前面的分片最多比后面的多 1 个
+   */
+  public KeyRange shard(int index, int total) {
+    long size = size();
+    return new KeyRange(from + size * index / total, from + size * (index + 1) / total);
+  }
+}
@@ -0,0 +1,26 @@
+package com.demo.executor.job;
+
+/**
+ * 按 id 范围分片执行的批处理任务，由 {@link ShardedJobRunner} 调度
+ */
+public interface RangeJob {
+
+  /**
+   * 任务名，用作检查点的 key
+   */
+  String name();
+
+  /**
+   * 全部需要处理的 id 范围
+   *
+   * @param param 调度中心传入的任务参数
+   */
+  KeyRange keyRange(String param);
+
+  /**
+   * 处理一段 id，会在多个线程上并发调用；从检查点恢复时检查点之后的段可能重复处理，需要幂等
+   *
+   * @return 实际处理的行数
+   */
+  long process(KeyRange chunk) throws Exception;
+}
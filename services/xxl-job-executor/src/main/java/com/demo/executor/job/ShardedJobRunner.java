@@ -0,0 +1,155 @@
+package com.demo.executor.job;
+
+import com.demo.executor.properties.ShardedJobProperties;
+import com.xxl.job.core.context.XxlJobHelper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片批处理
+ * <p>
+ * 按调度中心下发的分片参数把 id 范围均分给各执行器，分片内再切成固定大小的段，用虚拟线程并发处理。
+ * 段完成的顺序不固定，检查点只记录从分片起点开始连续完成的位置，重启后从这里继续；
+ * 进度和检查点都由任务线程定时处理，不随每一段输出。
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardedJobRunner {
+
+  private final CheckpointStore checkpointStore;
+  private final ShardedJobProperties properties;
+
+  public void run(RangeJob job) throws InterruptedException {
+    // 不是分片广播时 index / total 为 0 / 1
+    int shardTotal = Math.max(1, XxlJobHelper.getShardTotal());
+    int shardIndex = Math.max(0, XxlJobHelper.getShardIndex());
+    KeyRange shard = job.keyRange(XxlJobHelper.getJobParam()).shard(shardIndex, shardTotal);
+    long start = Math.clamp(checkpointStore.load(job.name(), shardIndex, shardTotal).orElse(shard.from()),
+        shard.from(), shard.to());
+    if (start > shard.from()) {
+      XxlJobHelper.log("分片 {}/{} 从检查点 {} 继续，范围 [{}, {})", shardIndex, shardTotal, start, shard.from(), shard.to());
+    } else {
+      XxlJobHelper.log("分片 {}/{} 开始，范围 [{}, {})", shardIndex, shardTotal, shard.from(), shard.to());
+    }
+
+    Progress progress = new Progress(shardIndex, shardTotal, start, shard.to(), properties.getChunkSize());
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      try {
+        execute(job, progress, new ExecutorCompletionService<>(executor));
+      } catch (InterruptedException e) {
+        // 调度中心终止任务
+        executor.shutdownNow();
+        checkpointStore.save(job.name(), shardIndex, shardTotal, progress.checkpoint());
+        XxlJobHelper.log("分片 {}/{} 被终止，检查点 {}", shardIndex, shardTotal, progress.checkpoint());
+        throw e;
+      } catch (ExecutionException e) {
+        executor.shutdownNow();
+        checkpointStore.save(job.name(), shardIndex, shardTotal, progress.checkpoint());
+        XxlJobHelper.log("分片 {}/{} 失败，检查点 {}", shardIndex, shardTotal, progress.checkpoint());
+        XxlJobHelper.log(e.getCause());
+        XxlJobHelper.handleFail(String.valueOf(e.getCause().getMessage()));
+        return;
+      }
+    }
+    checkpointStore.clear(job.name(), shardIndex, shardTotal);
+    XxlJobHelper.log("分片 {}/{} 完成，处理 {} 行", shardIndex, shardTotal, progress.rows());
+  }
+
+  private void execute(RangeJob job, Progress progress, CompletionService<Long> completionService)
+      throws InterruptedException, ExecutionException {
+    long checkpointNanos = properties.getCheckpointInterval().toNanos();
+    long reportNanos = properties.getReportInterval().toNanos();
+    long lastCheckpoint = System.nanoTime();
+    long lastReport = lastCheckpoint;
+    long startNanos = lastCheckpoint;
+    int nextChunk = 0;
+    int inFlight = 0;
+    while (true) {
+      while (inFlight < properties.getParallelism() && nextChunk < progress.chunks) {
+        int index = nextChunk++;
+        KeyRange chunk = progress.chunk(index);
+        completionService.submit(() -> progress.markDone(index, job.process(chunk)));
+        inFlight++;
+      }
+      if (inFlight == 0) {
+        return;
+      }
+      Future<Long> done = completionService.poll(Math.min(checkpointNanos, reportNanos), TimeUnit.NANOSECONDS);
+      if (done != null) {
+        done.get();
+        inFlight--;
+      }
+      long now = System.nanoTime();
+      if (now - lastCheckpoint >= checkpointNanos) {
+        checkpointStore.save(job.name(), progress.shardIndex, progress.shardTotal, progress.checkpoint());
+        lastCheckpoint = now;
+      }
+      if (now - lastReport >= reportNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(now - startNanos));
+        XxlJobHelper.log("分片 {}/{} 进度 {}/{} 段，检查点 {}，已处理 {} 行，{} 行/秒",
+            progress.shardIndex, progress.shardTotal, progress.completedChunks(), progress.chunks,
+            progress.checkpoint(), progress.rows(), progress.rows() / seconds);
+        lastReport = now;
+      }
+    }
+  }
+
+  /**
+   * 分片内的进度，段的完成状态由工作线程写入、任务线程读取
+   */
+  private static final class Progress {
+
+    private final int shardIndex;
+    private final int shardTotal;
+    private final long start;
+    private final long end;
+    private final long chunkSize;
+    private final int chunks;
+    private final BitSet completed = new BitSet();
+    private long rows;
+
+    private Progress(int shardIndex, int shardTotal, long start, long end, long chunkSize) {
+      this.shardIndex = shardIndex;
+      this.shardTotal = shardTotal;
+      this.start = start;
+      this.end = end;
+      this.chunkSize = chunkSize;
+      this.chunks = Math.toIntExact(Math.ceilDiv(end - start, chunkSize));
+    }
+
+    private KeyRange chunk(int index) {
+      long from = start + index * chunkSize;
+      return new KeyRange(from, Math.min(end, from + chunkSize));
+    }
+
+    private synchronized long markDone(int index, long processed) {
+      completed.set(index);
+      rows += processed;
+      return processed;
+    }
+
+    private synchronized long rows() {
+      return rows;
+    }
+
+    private synchronized int completedChunks() {
+      return completed.cardinality();
+    }
+
+    /**
+     * 从起点开始连续完成的位置
+     */
+    private synchronized long checkpoint() {
+      return Math.min(end, start + completed.nextClearBit(0) * chunkSize);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.demo.executor.pipeline;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 流水线的写入端：每批一次 JDBC batch，在单独的本地事务中提交
+ * <p>
+ * 失败时已经提交的批次不会回滚，重跑的任务需要能覆盖写入（如 insert ... on duplicate key update）。
+ */
+public class BatchWriter<T> {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final String sql;
+  private final ParameterizedPreparedStatementSetter<T> setter;
+
+  public BatchWriter(DataSource dataSource, String sql, ParameterizedPreparedStatementSetter<T> setter) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    this.sql = sql;
+    this.setter = setter;
+  }
+
+  /**
+   * @return 写入的行数
+   */
+  public int write(List<T> batch) {
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch, batch.size(), setter));
+    return batch.size();
+  }
+}
@@ -0,0 +1,16 @@
+package com.demo.executor.pipeline;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * 流水线的读取端：在给定的会话上打开 MyBatis 游标，例如
+ * {@code session -> session.getMapper(OrderMapper.class).scan(from, to)}
+ * <p>
+ * 游标按 fetch size 分批从数据库拉取，MySQL 需要在连接串上开启 useCursorFetch，否则驱动会一次读完整个结果集。
+ */
+@FunctionalInterface
+public interface CursorQuery<T> {
+
+  Cursor<T> open(SqlSession session);
+}
@@ -0,0 +1,10 @@
+package com.demo.executor.pipeline;
+
+import java.time.Duration;
+
+/**
+ * @param read    从游标读到的行数
+ * @param written 写入的行数，转换阶段过滤掉的行不计入
+ */
+public record PipelineResult(long read, long written, Duration elapsed) {
+}
@@ -0,0 +1,154 @@
+package com.demo.executor.pipeline;
+
+import com.demo.executor.properties.PipelineProperties;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 读取 → 转换 → 写入 的流式批处理
+ * <p>
+ * 三个阶段各自在虚拟线程上运行，之间用有界队列按批传递数据，下游跟不上时上游在 put 上阻塞，
+ * 内存中最多有 (2 × queue-capacity + transform-parallelism + 2) × batch-size 行，与表的大小无关。
+ * 转换阶段多线程执行，写入顺序与读取顺序不一致。任一阶段失败时取消其余阶段并抛出 {@link ExecutionException}。
+ * <p>
+ * 读取占一个连接直到游标读完，写入另占一个连接；在 {@link com.demo.executor.job.ShardedJobRunner}
+ * 的段内使用时，并发段数不要超过连接池大小的一半。
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingPipeline {
+
+  /**
+   * 队列中的结束标记
+   */
+  private static final List<Object> END = Collections.unmodifiableList(new ArrayList<>());
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final PipelineProperties properties;
+
+  /**
+   * @param transform 返回 null 的行不写入
+   */
+  public <I, O> PipelineResult run(CursorQuery<I> query, Function<? super I, ? extends O> transform,
+                                   BatchWriter<O> writer) throws InterruptedException, ExecutionException {
+    BlockingQueue<List<?>> readQueue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    BlockingQueue<List<?>> writeQueue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    int transformers = properties.getTransformParallelism();
+    AtomicInteger runningTransformers = new AtomicInteger(transformers);
+    long startNanos = System.nanoTime();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      CompletionService<Long> completionService = new ExecutorCompletionService<>(executor);
+      Future<Long> reading = completionService.submit(() -> read(query, readQueue));
+      for (int i = 0; i < transformers; i++) {
+        completionService.submit(() -> transform(readQueue, writeQueue, transform, runningTransformers));
+      }
+      Future<Long> writing = completionService.submit(() -> write(writeQueue, writer));
+      try {
+        for (int i = 0; i < transformers + 2; i++) {
+          completionService.take().get();
+        }
+      } catch (InterruptedException | ExecutionException e) {
+        executor.shutdownNow();
+        throw e;
+      }
+      return new PipelineResult(reading.get(), writing.get(), Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+  }
+
+  private <I> long read(CursorQuery<I> query, BlockingQueue<List<?>> out) throws InterruptedException {
+    int batchSize = properties.getBatchSize();
+    long rows = 0;
+    try (SqlSession session = sqlSessionFactory.openSession();
+         Cursor<I> cursor = query.open(session)) {
+      List<I> batch = new ArrayList<>(batchSize);
+      for (I row : cursor) {
+        batch.add(row);
+        if (batch.size() == batchSize) {
+          out.put(batch);
+          rows += batch.size();
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      if (!batch.isEmpty()) {
+        out.put(batch);
+        rows += batch.size();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    out.put(END);
+    return rows;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <I, O> long transform(BlockingQueue<List<?>> in, BlockingQueue<List<?>> out,
+                                Function<? super I, ? extends O> transform, AtomicInteger running)
+      throws InterruptedException {
+    while (true) {
+      List<?> batch = in.take();
+      if (batch == END) {
+        // 放回去让其他转换线程也能结束，最后一个退出的通知写入阶段
+        in.put(END);
+        if (running.decrementAndGet() == 0) {
+          out.put(END);
+        }
+        return 0L;
+      }
+      List<O> transformed = new ArrayList<>(batch.size());
+      for (Object row : batch) {
+        O result = transform.apply((I) row);
+        if (result != null) {
+          transformed.add(result);
+        }
+      }
+      if (!transformed.isEmpty()) {
+        out.put(transformed);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <O> long write(BlockingQueue<List<?>> in, BatchWriter<O> writer) throws InterruptedException {
+    int batchSize = properties.getBatchSize();
+    List<O> pending = new ArrayList<>(batchSize);
+    long rows = 0;
+    while (true) {
+      List<?> batch = in.take();
+      if (batch == END) {
+        if (!pending.isEmpty()) {
+          rows += writer.write(pending);
+        }
+        return rows;
+      }
+      // 过滤后的批次可能不满，攒够一批再写
+      for (Object row : batch) {
+        pending.add((O) row);
+        if (pending.size() == batchSize) {
+          rows += writer.write(pending);
+          pending = new ArrayList<>(batchSize);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.demo.executor.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "job.pipeline")
+@Data
+public class PipelineProperties {
+
+  /**
+   * 阶段之间每个队列最多缓存的批数，队列满时上游阻塞
+   */
+  int queueCapacity = 8;
+
+  /**
+   * 转换阶段的线程数
+   */
+  int transformParallelism = 4;
+
+  /**
+   * 读取、转换和写入的每批行数
+   */
+  int batchSize = 500;
+}
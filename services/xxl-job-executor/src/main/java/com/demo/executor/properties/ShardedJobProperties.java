@@ -0,0 +1,33 @@
+package com.demo.executor.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "job.sharded")
+@Data
+public class ShardedJobProperties {
+
+  /**
+   * 每个分片内同时处理的段数（虚拟线程）
+   */
+  int parallelism = 16;
+
+  /**
+   * 每段的 id 数量
+   */
+  long chunkSize = 10_000;
+
+  /**
+   * 保存检查点的间隔
+   */
+  Duration checkpointInterval = Duration.ofSeconds(5);
+
+  /**
+   * 通过 XxlJobHelper.log 输出进度的间隔
+   */
+  Duration reportInterval = Duration.ofSeconds(10);
+}
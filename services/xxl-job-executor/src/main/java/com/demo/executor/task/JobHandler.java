@@ -1,14 +1,21 @@
 package com.demo.executor.task;
 
+import com.demo.executor.job.KeyRange;
+import com.demo.executor.job.RangeJob;
+import com.demo.executor.job.ShardedJobRunner;
 import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.annotation.XxlJob;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 public class JobHandler {
 
+  private final ShardedJobRunner shardedJobRunner;
+
   /**
    * 简单任务示例（Bean模式）
    */
@@ -22,4 +29,29 @@ public class JobHandler {
     }
   }
 
+  /**
+   * 分片任务示例：路由策略选“分片广播”，任务参数为总行数（默认一千万），每个执行器处理其中一段
+   */
+  @XxlJob("shardedDemoJobHandler")
+  public void shardedDemoJobHandler() throws Exception {
+    shardedJobRunner.run(new RangeJob() {
+      @Override
+      public String name() {
+        return "shardedDemoJobHandler";
+      }
+
+      @Override
+      public KeyRange keyRange(String param) {
+        long rows = param == null || param.isBlank() ? 10_000_000 : Long.parseLong(param.trim());
+        return new KeyRange(0, rows);
+      }
+
+      @Override
+      public long process(KeyRange chunk) {
+        // 实际任务在这里按 id 范围读取并处理数据
+        return chunk.size();
+      }
+    });
+  }
+
 }
@@ -0,0 +1,86 @@
+package com.demo.executor.benchmark;
+
+import com.demo.executor.pipeline.BatchWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * 基于内嵌 H2 的源表 / 目标表，测试和基准共用
+ */
+public class H2JobDatabase implements AutoCloseable {
+
+  private final HikariDataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final SqlSessionFactory sqlSessionFactory;
+
+  public H2JobDatabase(String name, int rows) {
+    this(name, rows, null);
+  }
+
+  /**
+   * @param directory 不为 null 时表数据存到这个目录下的文件里，不占用堆，便于观察任务本身的内存
+   */
+  public H2JobDatabase(String name, int rows, Path directory) {
+    String url = directory == null ? "mem:" + name : "file:" + directory.resolve(name).toAbsolutePath();
+    dataSource = new HikariDataSource();
+    // 打开 LAZY_QUERY_EXECUTION 后 H2 的结果集随游标读取，不会先在内存中生成完整结果
+    dataSource.setJdbcUrl("jdbc:h2:" + url + ";DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE");
+    dataSource.setMaximumPoolSize(4);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("drop table if exists source_tbl");
+    jdbcTemplate.execute("drop table if exists target_tbl");
+    jdbcTemplate.execute("""
+        create table source_tbl
+        (
+            id      bigint primary key,
+            user_id varchar(255),
+            money   int
+        )""");
+    jdbcTemplate.execute("""
+        create table target_tbl
+        (
+            id      bigint primary key,
+            user_id varchar(255),
+            money   int
+        )""");
+    jdbcTemplate.update("insert into source_tbl select x, 'user-' || mod(x, 1000), mod(x, 100) from system_range(1, ?)", rows);
+
+    Configuration configuration = new Configuration(
+        new Environment("h2", new SpringManagedTransactionFactory(), dataSource));
+    configuration.setMapUnderscoreToCamelCase(true);
+    configuration.addMapper(SourceRowMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  public SqlSessionFactory sqlSessionFactory() {
+    return sqlSessionFactory;
+  }
+
+  public BatchWriter<SourceRow> targetWriter() {
+    return new BatchWriter<>(dataSource, "insert into target_tbl (id, user_id, money) values (?, ?, ?)", (ps, row) -> {
+      ps.setLong(1, row.getId());
+      ps.setString(2, row.getUserId());
+      ps.setInt(3, row.getMoney());
+    });
+  }
+
+  public long count(String table) {
+    return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+  }
+
+  public void truncateTarget() {
+    jdbcTemplate.execute("truncate table target_tbl");
+  }
+
+  @Override
+  public void close() {
+    dataSource.close();
+  }
+}
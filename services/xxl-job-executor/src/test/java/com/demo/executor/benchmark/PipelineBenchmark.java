@@ -0,0 +1,126 @@
+package com.demo.executor.benchmark;
+
+import com.demo.executor.pipeline.BatchWriter;
+import com.demo.executor.pipeline.PipelineResult;
+import com.demo.executor.pipeline.StreamingPipeline;
+import com.demo.executor.properties.PipelineProperties;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.util.FileSystemUtils;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 整表读入 List 再批量写 vs 流式流水线，把 source_tbl 整表复制到 target_tbl
+ * <p>
+ * 表数据放在临时目录的 H2 文件库里，每次迭代结束打印 GC 后堆占用的峰值（近似存活对象），
+ * 整表读入随行数增长，流水线基本不变。
+ * 运行：mvn -pl services/xxl-job-executor -am test-compile 后执行 main
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PipelineBenchmark {
+
+  @Param({"100000", "1000000"})
+  public int rows;
+
+  private H2JobDatabase database;
+  private BatchWriter<SourceRow> writer;
+  private StreamingPipeline pipeline;
+  private int batchSize;
+
+  private Path directory;
+  private final AtomicLong peakAfterGc = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("pipeline-benchmark");
+    database = new H2JobDatabase("pipeline-benchmark", rows, directory);
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+          GarbageCollectionNotificationInfo info =
+              GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+          long used = info.getGcInfo().getMemoryUsageAfterGc().values().stream().mapToLong(MemoryUsage::getUsed).sum();
+          peakAfterGc.accumulateAndGet(used, Math::max);
+        }
+      }, null, null);
+    }
+    writer = database.targetWriter();
+    PipelineProperties properties = new PipelineProperties();
+    batchSize = properties.getBatchSize();
+    pipeline = new StreamingPipeline(database.sqlSessionFactory(), properties);
+  }
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    database.truncateTarget();
+    System.gc();
+    peakAfterGc.set(0);
+  }
+
+  @TearDown(Level.Iteration)
+  public void reportPeakHeap() {
+    System.out.printf("%nGC 后堆占用峰值 %d MB%n", peakAfterGc.get() >> 20);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    database.close();
+    FileSystemUtils.deleteRecursively(directory);
+  }
+
+  /**
+   * 原来的写法：selectList 读出整表，再按批写入
+   */
+  @Benchmark
+  public long loadAll() {
+    List<SourceRow> all;
+    try (SqlSession session = database.sqlSessionFactory().openSession()) {
+      all = session.getMapper(SourceRowMapper.class).selectAll();
+    }
+    for (int from = 0; from < all.size(); from += batchSize) {
+      writer.write(all.subList(from, Math.min(all.size(), from + batchSize)));
+    }
+    return all.size();
+  }
+
+  @Benchmark
+  public PipelineResult streaming() throws Exception {
+    return pipeline.run(session -> session.getMapper(SourceRowMapper.class).scan(), row -> row, writer);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+        .include(PipelineBenchmark.class.getSimpleName())
+        .warmupIterations(2)
+        .measurementIterations(5)
+        .forks(1)
+        .jvmArgs("-Xmx1g")
+        .build()).run();
+  }
+}
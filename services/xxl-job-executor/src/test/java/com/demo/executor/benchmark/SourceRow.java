@@ -0,0 +1,11 @@
+package com.demo.executor.benchmark;
+
+import lombok.Data;
+
+@Data
+public class SourceRow {
+
+  private Long id;
+  private String userId;
+  private Integer money;
+}
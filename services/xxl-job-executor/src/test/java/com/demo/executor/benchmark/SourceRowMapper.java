@@ -0,0 +1,17 @@
+package com.demo.executor.benchmark;
+
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.List;
+
+public interface SourceRowMapper {
+
+  @Select("select id, user_id, money from source_tbl")
+  @Options(fetchSize = 1000)
+  Cursor<SourceRow> scan();
+
+  @Select("select id, user_id, money from source_tbl")
+  List<SourceRow> selectAll();
+}
@@ -0,0 +1,131 @@
+package com.demo.executor.job;
+
+import com.demo.executor.properties.ShardedJobProperties;
+import com.xxl.job.core.context.XxlJobContext;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedJobRunnerTest {
+
+  @TempDir
+  Path dir;
+
+  private HikariDataSource dataSource;
+  private CheckpointStore checkpointStore;
+  private ShardedJobRunner runner;
+
+  @BeforeEach
+  void setUp() {
+    ShardedJobProperties properties = new ShardedJobProperties();
+    properties.setParallelism(4);
+    properties.setChunkSize(100);
+    properties.setCheckpointInterval(Duration.ofHours(1));
+    properties.setReportInterval(Duration.ofHours(1));
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:checkpoint;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("drop table if exists job_checkpoint_tbl");
+    jdbcTemplate.execute("""
+        create table job_checkpoint_tbl
+        (
+            job_name    varchar(128) not null,
+            shard_index int          not null,
+            shard_total int          not null,
+            position    bigint       not null,
+            primary key (job_name, shard_index, shard_total)
+        )""");
+    checkpointStore = new CheckpointStore(jdbcTemplate);
+    runner = new ShardedJobRunner(checkpointStore, properties);
+    // 分片 1/2：负责 [5000, 10000)
+    XxlJobContext.setXxlJobContext(new XxlJobContext(1, "10000", dir.resolve("job.log").toString(), 1, 2));
+  }
+
+  @AfterEach
+  void tearDown() {
+    XxlJobContext.setXxlJobContext(null);
+    dataSource.close();
+  }
+
+  @Test
+  void failedShardResumesFromContiguousCheckpoint() throws Exception {
+    ConcurrentHashMap<Long, Integer> processed = new ConcurrentHashMap<>();
+    AtomicBoolean failOnce = new AtomicBoolean(true);
+    RangeJob job = job(chunk -> {
+      if (chunk.from() == 7_000 && failOnce.getAndSet(false)) {
+        throw new IllegalStateException("db down");
+      }
+      for (long id = chunk.from(); id < chunk.to(); id++) {
+        processed.merge(id, 1, Integer::sum);
+      }
+      return chunk.size();
+    });
+
+    runner.run(job);
+    assertEquals(XxlJobContext.HANDLE_CODE_FAIL, XxlJobContext.getXxlJobContext().getHandleCode());
+    OptionalLong checkpoint = checkpointStore.load("demo", 1, 2);
+    assertEquals(7_000, checkpoint.orElseThrow());
+    // 分片总数不同时分片范围不同，不使用这个检查点
+    assertTrue(checkpointStore.load("demo", 1, 3).isEmpty());
+
+    XxlJobContext.setXxlJobContext(new XxlJobContext(1, "10000", dir.resolve("job.log").toString(), 1, 2));
+    runner.run(job);
+    assertEquals(XxlJobContext.HANDLE_CODE_SUCCESS, XxlJobContext.getXxlJobContext().getHandleCode());
+    assertTrue(checkpointStore.load("demo", 1, 2).isEmpty());
+
+    assertEquals(5_000, processed.size());
+    for (long id = 5_000; id < 10_000; id++) {
+      int times = processed.get(id);
+      // 检查点之前的只处理一次
+      assertTrue(id >= 7_000 || times == 1, "重复处理：" + id);
+    }
+  }
+
+  @Test
+  void saveOverwritesPreviousCheckpoint() {
+    checkpointStore.save("demo", 0, 2, 100);
+    checkpointStore.save("demo", 0, 2, 300);
+    checkpointStore.save("demo", 1, 2, 5_100);
+
+    assertEquals(300, checkpointStore.load("demo", 0, 2).orElseThrow());
+    assertEquals(5_100, checkpointStore.load("demo", 1, 2).orElseThrow());
+    checkpointStore.clear("demo", 0, 2);
+    assertTrue(checkpointStore.load("demo", 0, 2).isEmpty());
+    assertEquals(5_100, checkpointStore.load("demo", 1, 2).orElseThrow());
+  }
+
+  private static RangeJob job(ChunkProcessor processor) {
+    return new RangeJob() {
+      @Override
+      public String name() {
+        return "demo";
+      }
+
+      @Override
+      public KeyRange keyRange(String param) {
+        return new KeyRange(0, Long.parseLong(param));
+      }
+
+      @Override
+      public long process(KeyRange chunk) throws Exception {
+        return processor.process(chunk);
+      }
+    };
+  }
+
+  private interface ChunkProcessor {
+    long process(KeyRange chunk) throws Exception;
+  }
+}
@@ -0,0 +1,62 @@
+package com.demo.executor.pipeline;
+
+import com.demo.executor.benchmark.H2JobDatabase;
+import com.demo.executor.benchmark.SourceRow;
+import com.demo.executor.benchmark.SourceRowMapper;
+import com.demo.executor.properties.PipelineProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamingPipelineTest {
+
+  private H2JobDatabase database;
+  private StreamingPipeline pipeline;
+
+  @BeforeEach
+  void setUp() {
+    database = new H2JobDatabase("pipeline-test", 10_000);
+    PipelineProperties properties = new PipelineProperties();
+    properties.setQueueCapacity(2);
+    properties.setBatchSize(64);
+    pipeline = new StreamingPipeline(database.sqlSessionFactory(), properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.close();
+  }
+
+  @Test
+  void copiesTransformedRowsAndSkipsFiltered() throws Exception {
+    PipelineResult result = pipeline.run(
+        session -> session.getMapper(SourceRowMapper.class).scan(),
+        row -> row.getMoney() == 0 ? null : row,
+        database.targetWriter());
+
+    assertEquals(10_000, result.read());
+    assertEquals(9_900, result.written());
+    assertEquals(9_900, database.count("target_tbl"));
+  }
+
+  @Test
+  void failureInOneStageCancelsTheOthers() {
+    ExecutionException e = assertThrows(ExecutionException.class, () -> pipeline.run(
+        session -> session.getMapper(SourceRowMapper.class).scan(),
+        (SourceRow row) -> {
+          if (row.getId() == 5_000) {
+            throw new IllegalStateException("bad row");
+          }
+          return row;
+        },
+        database.targetWriter()));
+
+    assertInstanceOf(IllegalStateException.class, e.getCause());
+  }
+}